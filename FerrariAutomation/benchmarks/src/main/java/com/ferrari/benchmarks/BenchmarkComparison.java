@@ -0,0 +1,88 @@
+package com.ferrari.benchmarks;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.TypeToken;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files and prints the change of every benchmark score.
+ * Usage: {@code java -cp target/benchmarks.jar com.ferrari.benchmarks.BenchmarkComparison before.json after.json}
+ */
+public final class BenchmarkComparison {
+    private static final Type RESULTS_TYPE = new TypeToken<List<Map<String, Object>>>() { }.getType();
+    
+    private BenchmarkComparison() {
+        // Private constructor to prevent instantiation
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        
+        Map<String, Map<String, Object>> baseline = read(args[0]);
+        Map<String, Map<String, Object>> candidate = read(args[1]);
+        
+        System.out.printf("%-70s %14s %14s %10s %-10s%n", "Benchmark", "Baseline", "Candidate", "Change", "Unit");
+        for (Map.Entry<String, Map<String, Object>> entry : candidate.entrySet()) {
+            Map<String, Object> before = baseline.get(entry.getKey());
+            double after = score(entry.getValue());
+            String unit = String.valueOf(metric(entry.getValue()).get("scoreUnit"));
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %10s %-10s%n", entry.getKey(), "-", after, "new", unit);
+                continue;
+            }
+            double change = (after - score(before)) / score(before) * 100.0;
+            System.out.printf("%-70s %14.3f %14.3f %+9.1f%% %-10s%n",
+                    entry.getKey(), score(before), after, change, unit);
+        }
+    }
+    
+    /**
+     * Read a JMH JSON result file, keyed by benchmark name, mode and thread count.
+     *
+     * @param file result file
+     * @return results by key
+     * @throws IOException if the file cannot be read
+     */
+    private static Map<String, Map<String, Object>> read(String file) throws IOException {
+        String json = new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8);
+        List<Map<String, Object>> results = new Json().toType(json, RESULTS_TYPE);
+        Map<String, Map<String, Object>> byKey = new LinkedHashMap<>();
+        for (Map<String, Object> result : results) {
+            String benchmark = String.valueOf(result.get("benchmark")).replace("com.ferrari.benchmarks.", "");
+            byKey.put(benchmark + " [" + result.get("mode") + ", t=" + result.get("threads") + "]", result);
+        }
+        return byKey;
+    }
+    
+    /**
+     * Get the primary metric of a result.
+     *
+     * @param result one benchmark result
+     * @return primary metric values
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> metric(Map<String, Object> result) {
+        return (Map<String, Object>) result.get("primaryMetric");
+    }
+    
+    /**
+     * Get the primary score of a result.
+     *
+     * @param result one benchmark result
+     * @return score in the result's unit
+     */
+    private static double score(Map<String, Object> result) {
+        return ((Number) metric(result).get("score")).doubleValue();
+    }
+}
@@ -0,0 +1,35 @@
+package com.ferrari.benchmarks;
+
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of the benchmark jar.
+ * Runs JMH with the given arguments and, unless a result file is given, saves the
+ * results as JSON under {@code target/jmh-results/} with a timestamped name so runs
+ * can be compared with {@link BenchmarkComparison}.
+ */
+public final class BenchmarkRunner {
+    private static final String RESULTS_DIR = "target/jmh-results";
+    
+    private BenchmarkRunner() {
+        // Private constructor to prevent instantiation
+    }
+    
+    public static void main(String[] args) throws RunnerException, IOException {
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+        if (!jmhArgs.contains("-rff")) {
+            new File(RESULTS_DIR).mkdirs();
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            jmhArgs.addAll(Arrays.asList("-rf", "json", "-rff", RESULTS_DIR + "/jmh-" + timestamp + ".json"));
+        }
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,45 @@
+package com.ferrari.benchmarks;
+
+import com.ferrari.config.ConfigurationManager;
+import com.ferrari.constants.BrowserType;
+import com.ferrari.utils.PropertyReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading configuration through ConfigurationManager and PropertyReader.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigurationBenchmark {
+    
+    @Benchmark
+    public BrowserType configurationManagerGetter() {
+        return ConfigurationManager.getInstance().getBrowserType();
+    }
+    
+    @Benchmark
+    public String propertyReaderString() {
+        return PropertyReader.getProperty("google.url", "https://www.google.com");
+    }
+    
+    @Benchmark
+    public int propertyReaderInt() {
+        return PropertyReader.getIntProperty("timeout.pageLoad", 30);
+    }
+    
+    @Benchmark
+    public boolean propertyReaderBoolean() {
+        return PropertyReader.getBooleanProperty("headless", false);
+    }
+}
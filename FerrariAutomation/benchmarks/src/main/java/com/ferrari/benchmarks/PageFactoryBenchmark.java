@@ -0,0 +1,52 @@
+package com.ferrari.benchmarks;
+
+import com.ferrari.pages.FerrariSF90Page;
+import com.ferrari.pages.GoogleHomePage;
+import com.ferrari.pages.GoogleSearchResultsPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of creating page objects, which wires their elements on every construction
+ * (generated wiring, or PageFactory.initElements for classes without it).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageFactoryBenchmark {
+    private WebDriver driver;
+    
+    @Setup
+    public void setUp() {
+        driver = StubDriver.create();
+    }
+    
+    @Benchmark
+    public GoogleHomePage googleHomePage() {
+        return new GoogleHomePage(driver);
+    }
+    
+    @Benchmark
+    public GoogleSearchResultsPage googleSearchResultsPage() {
+        return new GoogleSearchResultsPage(driver);
+    }
+    
+    @Benchmark
+    public FerrariSF90Page ferrariSF90Page() {
+        return new FerrariSF90Page(driver);
+    }
+}
@@ -0,0 +1,87 @@
+package com.ferrari.benchmarks;
+
+import com.ferrari.config.ConfigurationManager;
+import com.ferrari.config.DriverManager;
+import com.ferrari.load.StandInSite;
+import com.ferrari.pages.FerrariSF90Page;
+import com.ferrari.pages.GoogleHomePage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end "search, open first result, land on SF90" journey against {@link StandInSite}
+ * on a headless browser, reported as scenarios per minute.
+ * The browser is chosen with {@code -jvmArgsAppend -Dbrowser=chrome}; use {@code -t} for
+ * several concurrent sessions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 1, time = 20)
+@Measurement(iterations = 3, time = 30)
+@Fork(value = 1, jvmArgsAppend = {"-Dheadless=true", "-Dwait.adaptive.enabled=false", "-Ddriver.pool.enabled=false"})
+public class ScenarioThroughputBenchmark {
+    
+    /**
+     * Stand-in site shared by all benchmark threads.
+     */
+    @State(Scope.Benchmark)
+    public static class Site {
+        StandInSite site;
+        
+        @Setup(Level.Trial)
+        public void start() throws IOException {
+            site = new StandInSite();
+        }
+        
+        @TearDown(Level.Trial)
+        public void stop() {
+            site.close();
+        }
+    }
+    
+    /**
+     * One browser session per benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Browser {
+        DriverManager driverManager;
+        WebDriver driver;
+        
+        @Setup(Level.Trial)
+        public void start() {
+            driverManager = new DriverManager(ConfigurationManager.getInstance());
+            driver = driverManager.getDriver();
+        }
+        
+        @TearDown(Level.Trial)
+        public void stop() {
+            driverManager.quitDriver();
+        }
+    }
+    
+    @Benchmark
+    public boolean searchToSF90(Site site, Browser browser) {
+        FerrariSF90Page sf90Page = new GoogleHomePage(browser.driver)
+                .goTo(site.site.getBaseUrl())
+                .searchFor("ferrari sf90")
+                .clickFirstResult();
+        if (!sf90Page.urlContains("sf90")) {
+            throw new IllegalStateException("Journey did not reach the SF90 page: " + sf90Page.getCurrentUrl());
+        }
+        return sf90Page.isLoaded();
+    }
+}
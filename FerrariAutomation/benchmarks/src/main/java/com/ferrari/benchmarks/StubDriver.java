@@ -0,0 +1,98 @@
+package com.ferrari.benchmarks;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * In-memory WebDriver that answers every command immediately, so benchmarks
+ * measure framework overhead rather than browser latency.
+ * Every element is displayed and enabled, every script returns "complete" and
+ * the current URL is fixed.
+ */
+public final class StubDriver {
+    public static final String CURRENT_URL = "https://www.ferrari.com/en-EN/auto/sf90-stradale";
+    
+    private StubDriver() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Create a stub driver.
+     *
+     * @return WebDriver that is also a JavascriptExecutor
+     */
+    public static WebDriver create() {
+        return stub(WebDriver.class, JavascriptExecutor.class);
+    }
+    
+    /**
+     * Create a stub element.
+     *
+     * @return WebElement that is always displayed and enabled
+     */
+    public static WebElement element() {
+        return stub(WebElement.class);
+    }
+    
+    /**
+     * Create a proxy answering every method with a cheap default value.
+     *
+     * @param type main interface
+     * @param extraTypes additional interfaces
+     * @param <T> main interface type
+     * @return proxy instance
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Class<?>... extraTypes) {
+        Class<?>[] interfaces = new Class<?>[extraTypes.length + 1];
+        interfaces[0] = type;
+        System.arraycopy(extraTypes, 0, interfaces, 1, extraTypes.length);
+        
+        return (T) Proxy.newProxyInstance(StubDriver.class.getClassLoader(), interfaces, (proxy, method, args) -> {
+            Class<?> returnType = method.getReturnType();
+            switch (method.getName()) {
+                case "toString":
+                    return "Stub " + type.getSimpleName();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "getCurrentUrl":
+                    return CURRENT_URL;
+                case "executeScript":
+                case "executeAsyncScript":
+                    return "complete";
+                case "findElements":
+                    return Collections.singletonList(element());
+                default:
+                    break;
+            }
+            if (returnType == boolean.class) {
+                return true;
+            }
+            if (returnType == String.class) {
+                return "";
+            }
+            if (returnType == Duration.class) {
+                return Duration.ofSeconds(30);
+            }
+            if (returnType == List.class) {
+                return Collections.emptyList();
+            }
+            if (returnType == WebElement.class || returnType == SearchContext.class) {
+                return element();
+            }
+            if (returnType.isInterface()) {
+                return stub(returnType);
+            }
+            return null;
+        });
+    }
+}
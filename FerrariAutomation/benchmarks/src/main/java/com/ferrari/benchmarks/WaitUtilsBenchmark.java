@@ -0,0 +1,67 @@
+package com.ferrari.benchmarks;
+
+import com.ferrari.constants.TimeoutConstants;
+import com.ferrari.utils.WaitUtils;
+import com.ferrari.waits.PollingWaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of the WaitUtils paths when the condition already holds,
+ * i.e. the cost every BasePage helper pays on top of the WebDriver command itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WaitUtilsBenchmark {
+    private WebDriver driver;
+    private WebElement element;
+    
+    @Setup
+    public void setUp() {
+        driver = StubDriver.create();
+        element = StubDriver.element();
+        WaitUtils.setWaitStrategy(new PollingWaitStrategy(Duration.ofMillis(50), Duration.ofMillis(500), 1.5));
+    }
+    
+    @Benchmark
+    public WebElement waitForElementVisible() {
+        return WaitUtils.waitForElementVisible(driver, element);
+    }
+    
+    @Benchmark
+    public WebElement waitForElementClickable() {
+        return WaitUtils.waitForElementClickable(driver, element);
+    }
+    
+    @Benchmark
+    public void waitForPageLoad() {
+        WaitUtils.waitForPageLoad(driver);
+    }
+    
+    @Benchmark
+    public void waitForUrlToContain() {
+        WaitUtils.waitForUrlToContain(driver, "sf90", TimeoutConstants.MEDIUM_WAIT);
+    }
+    
+    @Benchmark
+    public boolean isElementAbsentWhileDisplayed() {
+        return WaitUtils.isElementAbsent(driver, element, Duration.ZERO);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ferrari.config;
+
+import com.ferrari.constants.BrowserType;
+import lombok.Value;
+
+/**
+ * Browser a scenario runs against, with its headless setting.
+ * In matrix mode each worker thread selects the profile of the scenario it is running,
+ * and {@link ConfigurationManager} reports that profile's browser to everything on the thread.
+ */
+@Value
+public class BrowserProfile {
+    private static final ThreadLocal<BrowserProfile> CURRENT = new ThreadLocal<>();
+    
+    BrowserType browserType;
+    boolean headless;
+    
+    /**
+     * Get the profile selected on the current thread.
+     *
+     * @return the selected profile, or null if the thread uses the configured default
+     */
+    public static BrowserProfile current() {
+        return CURRENT.get();
+    }
+    
+    /**
+     * Select a profile for the current thread.
+     *
+     * @param profile profile to use until {@link #clear()} is called
+     */
+    public static void use(BrowserProfile profile) {
+        CURRENT.set(profile);
+    }
+    
+    /**
+     * Go back to the configured default profile on the current thread.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+    
+    /**
+     * Profile of the in-JVM lite driver, which is always headless.
+     *
+     * @return lite profile
+     */
+    public static BrowserProfile lite() {
+        return new BrowserProfile(BrowserType.LITE, true);
+    }
+    
+    /**
+     * Short label used to tag reports, e.g. {@code chrome}, {@code firefox-headless} or {@code lite}.
+     *
+     * @return profile label
+     */
+    public String getLabel() {
+        return browserType.name().toLowerCase() + (headless && browserType != BrowserType.LITE ? "-headless" : "");
+    }
+}
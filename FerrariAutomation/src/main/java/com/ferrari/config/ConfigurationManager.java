@@ -1,10 +1,26 @@
 package com.ferrari.config;
 
+import com.ferrari.constants.ArchiveMode;
 import com.ferrari.constants.BrowserType;
+import com.ferrari.constants.LiteMode;
+import com.ferrari.constants.ResourceType;
 import com.ferrari.constants.TimeoutConstants;
+import com.ferrari.constants.WaitMode;
+import com.ferrari.load.LoadProfile;
+import com.ferrari.network.BlockList;
 import com.ferrari.utils.PropertyReader;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.PageLoadStrategy;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Class responsible for managing test configuration.
@@ -14,12 +30,58 @@ import lombok.extern.log4j.Log4j2;
 public class ConfigurationManager {
     private final BrowserType browserType;
     private final boolean headless;
+    private final List<BrowserProfile> browserMatrix;
+    private final LiteMode liteMode;
+    private final String browserTimingReport;
     private final String googleUrl;
     private final String ferrariSF90Url;
     private final String searchTerm;
-    private final int implicitTimeout;
     private final int pageLoadTimeout;
     private final int scriptTimeout;
+    private final PageLoadStrategy pageLoadStrategy;
+    private final WaitMode waitMode;
+    private final long pollInitialMillis;
+    private final long pollMaxMillis;
+    private final double pollMultiplier;
+    private final boolean adaptiveTimeouts;
+    private final String waitHistoryFile;
+    private final double adaptivePercentile;
+    private final int adaptiveMarginMillis;
+    private final int adaptiveMinSamples;
+    private final int parallelThreads;
+    private final boolean commandMetrics;
+    private final String commandMetricsReport;
+    private final boolean driverPoolEnabled;
+    private final int driverPoolSize;
+    private final int driverPoolMaxReuses;
+    private final boolean profileTemplateEnabled;
+    private final String profileTemplateDir;
+    private final String driverCacheDir;
+    private final boolean driverCacheOffline;
+    private final ArchiveMode archiveMode;
+    private final String archiveFile;
+    private final Set<String> archiveIgnoredParams;
+    private final BlockList blockList;
+    private final boolean locatorCacheEnabled;
+    private final String artifactsDir;
+    private final String artifactsReportDir;
+    private final String visualBaselineDir;
+    private final int visualHashThreshold;
+    private final int visualPixelTolerance;
+    private final double visualMaxDiffRatio;
+    private final boolean visualUpdateBaselines;
+    private final boolean traceEnabled;
+    private final String traceFile;
+    private final boolean performanceEnabled;
+    private final boolean performanceFailOnBudget;
+    private final int performanceSettleMillis;
+    private final int shardIndex;
+    private final int shardCount;
+    private final String shardDurationsFile;
+    private final LoadProfile loadProfile;
+    private final String loadBaseUrl;
+    private final boolean loadStandIn;
+    private final String loadReport;
     
     /**
      * Singleton instance of ConfigurationManager.
@@ -46,6 +108,9 @@ public class ConfigurationManager {
         // Browser configuration
         this.browserType = BrowserType.fromString(PropertyReader.getProperty("browser", "firefox"));
         this.headless = PropertyReader.getBooleanProperty("headless", false);
+        this.browserMatrix = parseBrowserMatrix(PropertyReader.getProperty("browser.matrix", ""));
+        this.liteMode = LiteMode.fromString(PropertyReader.getProperty("lite.mode", "off"));
+        this.browserTimingReport = PropertyReader.getProperty("browser.timingReport", "target/browser-timings.txt");
         
         // URLs
         this.googleUrl = PropertyReader.getProperty("google.url", "https://www.google.com");
@@ -55,13 +120,183 @@ public class ConfigurationManager {
         this.searchTerm = PropertyReader.getProperty("search.term", "ferrari sf90");
         
         // Timeouts
-        this.implicitTimeout = PropertyReader.getIntProperty("timeout.implicit", TimeoutConstants.DEFAULT_IMPLICIT_TIMEOUT);
         this.pageLoadTimeout = PropertyReader.getIntProperty("timeout.pageLoad", TimeoutConstants.DEFAULT_PAGE_LOAD_TIMEOUT);
         this.scriptTimeout = PropertyReader.getIntProperty("timeout.script", TimeoutConstants.DEFAULT_SCRIPT_TIMEOUT);
         
+        // Page loading
+        PageLoadStrategy strategy = PageLoadStrategy.fromString(PropertyReader.getProperty("page.loadStrategy", "normal"));
+        this.pageLoadStrategy = strategy != null ? strategy : PageLoadStrategy.NORMAL;
+        
+        // Waits
+        this.waitMode = WaitMode.fromString(PropertyReader.getProperty("wait.mode", "polling"));
+        this.pollInitialMillis = PropertyReader.getIntProperty("wait.poll.initialMillis", 50);
+        this.pollMaxMillis = PropertyReader.getIntProperty("wait.poll.maxMillis", 500);
+        this.pollMultiplier = PropertyReader.getDoubleProperty("wait.poll.multiplier", 1.5);
+        this.adaptiveTimeouts = PropertyReader.getBooleanProperty("wait.adaptive.enabled", false);
+        this.waitHistoryFile = PropertyReader.getProperty("wait.adaptive.historyFile", "wait-history.tsv");
+        this.adaptivePercentile = PropertyReader.getDoubleProperty("wait.adaptive.percentile", 99);
+        this.adaptiveMarginMillis = PropertyReader.getIntProperty("wait.adaptive.marginMillis", 2000);
+        this.adaptiveMinSamples = PropertyReader.getIntProperty("wait.adaptive.minSamples", 10);
+        
+        // Parallel execution
+        this.parallelThreads = Math.max(1, PropertyReader.getIntProperty("parallel.threads", 1));
+        
+        // Command metrics
+        this.commandMetrics = PropertyReader.getBooleanProperty("metrics.commands.enabled", false);
+        this.commandMetricsReport = PropertyReader.getProperty("metrics.commands.report", "target/command-latency.txt");
+        
+        // Driver pool
+        this.driverPoolEnabled = PropertyReader.getBooleanProperty("driver.pool.enabled", false);
+        this.driverPoolSize = PropertyReader.getIntProperty("driver.pool.size", parallelThreads);
+        this.driverPoolMaxReuses = PropertyReader.getIntProperty("driver.pool.maxReuses", 20);
+        
+        // Profile templates
+        this.profileTemplateEnabled = PropertyReader.getBooleanProperty("browser.profileTemplate.enabled", false);
+        this.profileTemplateDir = PropertyReader.getProperty("browser.profileTemplate.dir", "profile-templates");
+        
+        // Driver binaries
+        this.driverCacheDir = PropertyReader.getProperty("driver.cache.dir", "driver-cache");
+        this.driverCacheOffline = PropertyReader.getBooleanProperty("driver.cache.offline", false);
+        
+        // Network archive
+        this.archiveMode = ArchiveMode.fromString(PropertyReader.getProperty("network.archive.mode", "off"));
+        this.archiveFile = PropertyReader.getProperty("network.archive.file", "recordings/network.archive");
+        this.archiveIgnoredParams = splitList(PropertyReader.getProperty("network.archive.ignoredParams", ""));
+        
+        // Network blocking
+        this.blockList = PropertyReader.getBooleanProperty("network.block.enabled", false)
+                ? new BlockList(splitList(PropertyReader.getProperty("network.block.urls", "")),
+                        parseResourceTypes(PropertyReader.getProperty("network.block.types", "")))
+                : BlockList.NONE;
+        
+        // Element lookups
+        this.locatorCacheEnabled = PropertyReader.getBooleanProperty("locator.cache.enabled", false);
+        
+        // Sharding
+        this.shardIndex = PropertyReader.getIntProperty("shard.index", 0);
+        this.shardCount = PropertyReader.getIntProperty("shard.count", 1);
+        this.shardDurationsFile = PropertyReader.getProperty("shard.durationsFile", "scenario-durations.tsv");
+        
+        // Report artifacts, kept apart per shard so shards running side by side do not overwrite each other
+        String reportDir = PropertyReader.getProperty("artifacts.reportDir", "target/cucumber-reports");
+        this.artifactsReportDir = shardCount > 1 ? reportDir + "/shard-" + shardIndex : reportDir;
+        this.artifactsDir = PropertyReader.getProperty("artifacts.dir", artifactsReportDir + "/artifacts");
+        
+        // Visual checks
+        this.visualBaselineDir = PropertyReader.getProperty("visual.baselineDir", "src/test/resources/baselines");
+        this.visualHashThreshold = PropertyReader.getIntProperty("visual.hashThreshold", 0);
+        this.visualPixelTolerance = PropertyReader.getIntProperty("visual.pixelTolerance", 16);
+        this.visualMaxDiffRatio = PropertyReader.getDoubleProperty("visual.maxDiffRatio", 0.001);
+        this.visualUpdateBaselines = PropertyReader.getBooleanProperty("visual.updateBaselines", false);
+        
+        // Trace recording
+        this.traceEnabled = PropertyReader.getBooleanProperty("trace.enabled", false);
+        this.traceFile = PropertyReader.getProperty("trace.file", "target/trace.bin");
+        
+        // Page performance
+        this.performanceEnabled = PropertyReader.getBooleanProperty("performance.enabled", false);
+        this.performanceFailOnBudget = PropertyReader.getBooleanProperty("performance.failOnBudget", false);
+        this.performanceSettleMillis = PropertyReader.getIntProperty("performance.settleMillis", 1000);
+        
+        // Load generation
+        this.loadProfile = new LoadProfile(
+                Math.max(1, PropertyReader.getIntProperty("load.users", 4)),
+                Duration.ofSeconds(Math.max(0, PropertyReader.getIntProperty("load.durationSeconds", 60))),
+                Math.max(0, PropertyReader.getIntProperty("load.iterations", 0)),
+                Duration.ofSeconds(Math.max(0, PropertyReader.getIntProperty("load.rampUpSeconds", 10))),
+                Duration.ofMillis(Math.max(0, PropertyReader.getIntProperty("load.thinkTimeMillis", 500))));
+        this.loadBaseUrl = PropertyReader.getProperty("load.baseUrl", "").trim();
+        this.loadStandIn = PropertyReader.getBooleanProperty("load.standIn", false);
+        this.loadReport = PropertyReader.getProperty("load.report", "target/load-report.txt");
+        
         logConfiguration();
     }
     
+    /**
+     * Get the browser of the current thread: the browser of its matrix profile, or the configured browser.
+     *
+     * @return browser type
+     */
+    public BrowserType getBrowserType() {
+        BrowserProfile profile = BrowserProfile.current();
+        return profile != null ? profile.getBrowserType() : browserType;
+    }
+    
+    /**
+     * Get the headless setting of the current thread: that of its matrix profile, or the configured one.
+     *
+     * @return whether the browser runs headless
+     */
+    public boolean isHeadless() {
+        BrowserProfile profile = BrowserProfile.current();
+        return profile != null ? profile.isHeadless() : headless;
+    }
+    
+    /**
+     * Get the profile of the current thread.
+     *
+     * @return the matrix profile selected on the thread, or the configured browser
+     */
+    public BrowserProfile getBrowserProfile() {
+        BrowserProfile profile = BrowserProfile.current();
+        return profile != null ? profile : new BrowserProfile(browserType, headless);
+    }
+    
+    /**
+     * Parse the browsers of the matrix. Each browser runs headless according to
+     * {@code headless.<browser>}, falling back to {@code headless}.
+     *
+     * @param value comma-separated browser names, empty to run only the configured browser
+     * @return the matrix profiles, with a single entry when matrix mode is off
+     */
+    private List<BrowserProfile> parseBrowserMatrix(String value) {
+        Map<BrowserType, BrowserProfile> profiles = new LinkedHashMap<>();
+        for (String name : value.split(",")) {
+            if (name.trim().isEmpty()) {
+                continue;
+            }
+            BrowserType type = BrowserType.fromString(name.trim());
+            profiles.putIfAbsent(type, new BrowserProfile(type,
+                    PropertyReader.getBooleanProperty("headless." + type.name().toLowerCase(), headless)));
+        }
+        if (profiles.isEmpty()) {
+            return List.of(new BrowserProfile(browserType, headless));
+        }
+        return List.copyOf(profiles.values());
+    }
+    
+    /**
+     * Split a comma-separated property value.
+     *
+     * @param value comma-separated list
+     * @return non-empty trimmed entries
+     */
+    private static Set<String> splitList(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+    
+    /**
+     * Parse a comma-separated list of resource types, skipping unknown names.
+     *
+     * @param value comma-separated resource type names
+     * @return resource types
+     */
+    private static Set<ResourceType> parseResourceTypes(String value) {
+        Set<ResourceType> types = EnumSet.noneOf(ResourceType.class);
+        for (String name : splitList(value)) {
+            ResourceType type = ResourceType.fromString(name);
+            if (type == null) {
+                log.warn("Ignoring unknown resource type: {}", name);
+            } else {
+                types.add(type);
+            }
+        }
+        return Set.copyOf(types);
+    }
+    
     /**
      * Log the current configuration.
      */
@@ -69,11 +304,34 @@ public class ConfigurationManager {
         log.info("Test Configuration:");
         log.info("Browser: {}", browserType);
         log.info("Headless: {}", headless);
+        log.info("Browser Matrix: {}", browserMatrix.stream().map(BrowserProfile::getLabel).collect(Collectors.toList()));
+        log.info("Lite Mode: {} (timings in {})", liteMode, browserTimingReport);
         log.info("Google URL: {}", googleUrl);
         log.info("Ferrari SF90 URL: {}", ferrariSF90Url);
         log.info("Search Term: {}", searchTerm);
-        log.info("Implicit Timeout: {} seconds", implicitTimeout);
         log.info("Page Load Timeout: {} seconds", pageLoadTimeout);
         log.info("Script Timeout: {} seconds", scriptTimeout);
+        log.info("Page Load Strategy: {}", pageLoadStrategy);
+        log.info("Wait Mode: {}", waitMode);
+        log.info("Polling: {} ms, x{} up to {} ms", pollInitialMillis, pollMultiplier, pollMaxMillis);
+        log.info("Adaptive Timeouts: {} (p{} + {} ms after {} samples, history in {})", adaptiveTimeouts,
+                adaptivePercentile, adaptiveMarginMillis, adaptiveMinSamples, waitHistoryFile);
+        log.info("Parallel Threads: {}", parallelThreads);
+        log.info("Command Metrics: {} (report {})", commandMetrics, commandMetricsReport);
+        log.info("Driver Pool: {} (size {}, max reuses {})", driverPoolEnabled, driverPoolSize, driverPoolMaxReuses);
+        log.info("Profile Templates: {} (in {})", profileTemplateEnabled, profileTemplateDir);
+        log.info("Driver Cache: {} (offline {})", driverCacheDir, driverCacheOffline);
+        log.info("Network Archive: {} (file {}, ignored parameters {})", archiveMode, archiveFile, archiveIgnoredParams);
+        log.info("Locator Cache: {}", locatorCacheEnabled);
+        log.info("Artifacts: {} (linked from {})", artifactsDir, artifactsReportDir);
+        log.info("Trace: {} (file {})", traceEnabled, traceFile);
+        log.info("Page Performance: {} (fail on budget {}, settle {} ms)", performanceEnabled, performanceFailOnBudget,
+                performanceSettleMillis);
+        log.info("Shard: {} of {} (durations in {})", shardIndex, shardCount, shardDurationsFile);
+        log.info("Load Generation: {} (base URL {}, stand-in site {}, report {})",
+                loadProfile, loadBaseUrl, loadStandIn, loadReport);
+        log.info("Visual Checks: baselines in {} (hash threshold {}, pixel tolerance {}, max diff {}, update {})",
+                visualBaselineDir, visualHashThreshold, visualPixelTolerance, visualMaxDiffRatio, visualUpdateBaselines);
+        log.info("Blocked Resources: {} and URLs {}", blockList.getResourceTypes(), blockList.getUrlPatterns());
     }
 }
@@ -0,0 +1,347 @@
+package com.ferrari.config;
+
+import com.ferrari.constants.BrowserType;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.manager.SeleniumManager;
+import org.openqa.selenium.manager.SeleniumManagerOutput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Driver and browser binaries resolved once, before the first session starts.
+ * Drivers found by Selenium Manager are copied into a versioned local cache
+ * ({@code <cache>/<browser>/<driver version>/}) listed in {@code drivers.properties}; later runs and forks
+ * read that index instead of calling Selenium Manager. The index also holds the version of the browser
+ * each driver was resolved for; when the browser has updated since, the driver is resolved again.
+ * Resolved drivers are published through the
+ * {@code webdriver.*.driver} system properties, so Selenium never looks them up while a scenario runs.
+ * A cache directory copied to an agent without network access works as is.
+ */
+@Log4j2
+public class DriverBinaries {
+    private static final String INDEX_FILE = "drivers.properties";
+    private static final Pattern VERSION = Pattern.compile("\\d+(\\.\\d+)+");
+    
+    /**
+     * Binaries resolved in this JVM, by browser.
+     */
+    private static final Map<BrowserType, Binaries> RESOLVED = new EnumMap<>(BrowserType.class);
+    
+    /**
+     * Browsers that could not be resolved in this JVM, left to Selenium Manager without trying again.
+     */
+    private static final Set<BrowserType> UNRESOLVED = EnumSet.noneOf(BrowserType.class);
+    
+    private final Path cacheDir;
+    private final boolean offline;
+    
+    /**
+     * Driver and browser executables of one browser.
+     */
+    @Value
+    public static class Binaries {
+        Path driverPath;
+        String driverVersion;
+        
+        /**
+         * Version of the browser the driver was resolved for, or {@code unknown}.
+         */
+        String browserVersion;
+        
+        /**
+         * Browser executable, or null to let the driver find the installed browser.
+         */
+        Path browserPath;
+    }
+    
+    /**
+     * Constructor.
+     *
+     * @param cacheDir directory of the driver cache
+     * @param offline whether Selenium Manager must not download anything
+     */
+    public DriverBinaries(Path cacheDir, boolean offline) {
+        this.cacheDir = cacheDir;
+        this.offline = offline;
+    }
+    
+    /**
+     * Get the binaries resolved for a browser in this JVM.
+     *
+     * @param browserType browser
+     * @return resolved binaries, or empty if the browser was not resolved
+     */
+    public static Optional<Binaries> get(BrowserType browserType) {
+        synchronized (RESOLVED) {
+            return Optional.ofNullable(RESOLVED.get(browserType));
+        }
+    }
+    
+    /**
+     * Resolve the binaries of every browser the run uses and report the outcome.
+     *
+     * @param browserTypes browsers of the run
+     * @return browsers that could not be resolved, empty if every browser was resolved
+     */
+    public Set<BrowserType> preflight(Collection<BrowserType> browserTypes) {
+        long start = System.nanoTime();
+        Set<BrowserType> unresolved = EnumSet.noneOf(BrowserType.class);
+        for (BrowserType browserType : browserTypes) {
+            if (browserType == BrowserType.LITE) {
+                continue;
+            }
+            Optional<Binaries> binaries = resolve(browserType);
+            if (binaries.isPresent()) {
+                log.info("Driver preflight: {} {} uses driver {} at {}{}", browserType,
+                        binaries.get().getBrowserVersion(), binaries.get().getDriverVersion(), binaries.get().getDriverPath(),
+                        binaries.get().getBrowserPath() != null ? " and browser " + binaries.get().getBrowserPath() : "");
+            } else {
+                log.error("Driver preflight: no driver for {} in {}{}", browserType, cacheDir, offline ? " (offline)" : "");
+                unresolved.add(browserType);
+            }
+        }
+        log.info("Driver preflight finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+        return unresolved;
+    }
+    
+    /**
+     * Resolve the binaries of a browser: from this JVM, a driver path set by the user, the cache index,
+     * or Selenium Manager, in that order. The result is published as the driver system property.
+     *
+     * @param browserType browser
+     * @return resolved binaries, or empty if no driver could be found
+     */
+    public Optional<Binaries> resolve(BrowserType browserType) {
+        synchronized (RESOLVED) {
+            Binaries binaries = RESOLVED.get(browserType);
+            if (binaries != null || UNRESOLVED.contains(browserType)) {
+                return Optional.ofNullable(binaries);
+            }
+            
+            String userPath = System.getProperty(driverProperty(browserType));
+            if (userPath != null) {
+                binaries = new Binaries(Paths.get(userPath), reportedVersion(Paths.get(userPath)), "unknown", null);
+            } else {
+                binaries = readIndex(browserType).orElseGet(() -> download(browserType));
+            }
+            if (binaries == null) {
+                UNRESOLVED.add(browserType);
+                return Optional.empty();
+            }
+            
+            System.setProperty(driverProperty(browserType), binaries.getDriverPath().toAbsolutePath().toString());
+            RESOLVED.put(browserType, binaries);
+            return Optional.of(binaries);
+        }
+    }
+    
+    /**
+     * Look a browser up in the cache index.
+     *
+     * @param browserType browser
+     * @return cached binaries, or empty if missing, no longer on disk or resolved for another browser version
+     */
+    private Optional<Binaries> readIndex(BrowserType browserType) {
+        Properties index = loadIndex();
+        String key = browserType.name().toLowerCase();
+        String driver = index.getProperty(key + ".driver");
+        if (driver == null) {
+            return Optional.empty();
+        }
+        
+        Path driverPath = cacheDir.resolve(driver);
+        String browser = index.getProperty(key + ".browser");
+        Path browserPath = browser == null || browser.isEmpty() ? null : Paths.get(browser);
+        if (!Files.isExecutable(driverPath) || browserPath != null && !Files.exists(browserPath)) {
+            log.info("Cached {} binaries are gone, resolving them again", browserType);
+            return Optional.empty();
+        }
+        
+        String driverVersion = index.getProperty(key + ".version", "unknown");
+        String cachedBrowserVersion = index.getProperty(key + ".browserVersion", "unknown");
+        String browserVersion = browserPath != null ? reportedVersion(browserPath) : "unknown";
+        if (!"unknown".equals(browserVersion) && !browserVersion.equals(cachedBrowserVersion)) {
+            if (offline) {
+                log.error("Cached {} driver {} was resolved for browser version {}, but the browser is now {}. "
+                                + "The driver cache is offline; run once with driver.cache.offline=false "
+                                + "or copy an updated driver cache {} to this agent", browserType, driverVersion,
+                        cachedBrowserVersion, browserVersion, cacheDir);
+            } else {
+                log.info("{} was updated from {} to {}, resolving its driver again",
+                        browserType, cachedBrowserVersion, browserVersion);
+            }
+            return Optional.empty();
+        }
+        return Optional.of(new Binaries(driverPath, driverVersion, cachedBrowserVersion, browserPath));
+    }
+    
+    /**
+     * Find the driver with Selenium Manager and copy it into the cache.
+     *
+     * @param browserType browser
+     * @return cached binaries, or null if Selenium Manager found no driver
+     */
+    private Binaries download(BrowserType browserType) {
+        SeleniumManagerOutput.Result result;
+        try {
+            result = SeleniumManager.getInstance().getDriverPath(options(browserType), offline);
+        } catch (RuntimeException e) {
+            log.warn("Selenium Manager could not resolve {}: {}", browserType, e.getMessage());
+            return null;
+        }
+        if (result.getDriverPath() == null || result.getDriverPath().isEmpty()) {
+            return null;
+        }
+        
+        Path found = Paths.get(result.getDriverPath());
+        String version = reportedVersion(found);
+        Path browserPath = result.getBrowserPath() == null || result.getBrowserPath().isEmpty()
+                ? null : Paths.get(result.getBrowserPath());
+        String browserVersion = browserPath != null ? reportedVersion(browserPath) : "unknown";
+        try {
+            Path relative = Paths.get(browserType.name().toLowerCase(), version, found.getFileName().toString());
+            Path cached = cacheDir.resolve(relative);
+            Files.createDirectories(cached.getParent());
+            Files.copy(found, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+            cached.toFile().setExecutable(true);
+            writeIndex(browserType, relative, version, browserVersion, browserPath);
+            log.info("Cached {} driver {} for browser {} in {}", browserType, version, browserVersion, cached);
+            return new Binaries(cached, version, browserVersion, browserPath);
+        } catch (IOException e) {
+            log.warn("Could not cache {} driver, using it from {}: {}", browserType, found, e.getMessage());
+            return new Binaries(found, version, browserVersion, browserPath);
+        }
+    }
+    
+    /**
+     * Load the cache index.
+     *
+     * @return index entries, empty if there is no index yet
+     */
+    private Properties loadIndex() {
+        Properties index = new Properties();
+        Path indexFile = cacheDir.resolve(INDEX_FILE);
+        if (Files.exists(indexFile)) {
+            try (InputStream in = Files.newInputStream(indexFile)) {
+                index.load(in);
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable driver cache index {}: {}", indexFile, e.getMessage());
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Add a browser to the cache index, replacing the file atomically so concurrent forks never read half of it.
+     *
+     * @param browserType browser
+     * @param driver driver path relative to the cache directory
+     * @param version driver version
+     * @param browserVersion version of the browser the driver was resolved for
+     * @param browserPath browser executable, or null
+     * @throws IOException if the index cannot be written
+     */
+    private void writeIndex(BrowserType browserType, Path driver, String version, String browserVersion,
+                            Path browserPath) throws IOException {
+        Properties index = loadIndex();
+        String key = browserType.name().toLowerCase();
+        index.setProperty(key + ".driver", driver.toString().replace('\\', '/'));
+        index.setProperty(key + ".version", version);
+        index.setProperty(key + ".browserVersion", browserVersion);
+        index.setProperty(key + ".browser", browserPath != null ? browserPath.toAbsolutePath().toString() : "");
+        
+        Files.createDirectories(cacheDir);
+        Path temp = Files.createTempFile(cacheDir, "drivers", ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            index.store(out, "Driver binaries resolved by DriverBinaries");
+        }
+        Files.move(temp, cacheDir.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Get the version a driver or browser executable reports.
+     *
+     * @param executable driver or browser executable
+     * @return version number, or {@code unknown}
+     */
+    private static String reportedVersion(Path executable) {
+        try {
+            Process process = new ProcessBuilder(executable.toString(), "--version").redirectErrorStream(true).start();
+            String output;
+            try (InputStream in = process.getInputStream()) {
+                output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+            Matcher matcher = VERSION.matcher(output);
+            return matcher.find() ? matcher.group() : "unknown";
+        } catch (IOException e) {
+            return "unknown";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+    
+    /**
+     * Options Selenium Manager resolves a browser from.
+     *
+     * @param browserType browser
+     * @return browser options
+     */
+    private static Capabilities options(BrowserType browserType) {
+        switch (browserType) {
+            case CHROME:
+                return new ChromeOptions();
+            case EDGE:
+                return new EdgeOptions();
+            case FIREFOX:
+            default:
+                return new FirefoxOptions();
+        }
+    }
+    
+    /**
+     * System property Selenium reads the driver executable of a browser from.
+     *
+     * @param browserType browser
+     * @return driver system property
+     */
+    private static String driverProperty(BrowserType browserType) {
+        switch (browserType) {
+            case CHROME:
+                return ChromeDriverService.CHROME_DRIVER_EXE_PROPERTY;
+            case EDGE:
+                return EdgeDriverService.EDGE_DRIVER_EXE_PROPERTY;
+            case FIREFOX:
+            default:
+                return GeckoDriverService.GECKO_DRIVER_EXE_PROPERTY;
+        }
+    }
+}
@@ -1,28 +1,77 @@
 package com.ferrari.config;
 
+import com.ferrari.constants.ArchiveMode;
 import com.ferrari.constants.BrowserType;
+import com.ferrari.constants.ResourceType;
 import com.ferrari.constants.TimeoutConstants;
+import com.ferrari.constants.WaitMode;
+import com.ferrari.network.BlockList;
+import com.ferrari.network.NetworkBlocker;
+import com.ferrari.network.RecordReplayFilter;
+import com.ferrari.network.ResponseArchive;
+import com.ferrari.trace.TraceEventType;
+import com.ferrari.trace.TraceRecorder;
+import com.gargoylesoftware.htmlunit.BrowserVersion;
+import com.gargoylesoftware.htmlunit.WebClientOptions;
 import lombok.extern.log4j.Log4j2;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.NetworkInterceptor;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
 
-import javax.inject.Inject;
-import javax.inject.Singleton;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 /**
  * Manager class for WebDriver instances.
+ * Each thread gets its own WebDriver session so scenarios can run in parallel.
  */
 @Log4j2
 @Singleton
 public class DriverManager {
+    /**
+     * Every session started by any DriverManager, so they can all be closed at the end of the run.
+     */
+    private static final Set<WebDriver> ACTIVE_DRIVERS = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * Pools of warm sessions shared by all threads, one per browser, created on first use when pooling is enabled.
+     */
+    private static final Map<BrowserType, DriverPool> POOLS = new EnumMap<>(BrowserType.class);
+    
+    /**
+     * Profile directory copied from a template for each session, removed when the session is quit.
+     */
+    private static final Map<WebDriver, Path> SESSION_PROFILES = new ConcurrentHashMap<>();
+    
+    /**
+     * Whether the Firefox blocking limitations have been logged, so they are logged once per run.
+     */
+    private static final AtomicBoolean FIREFOX_BLOCKING_LOGGED = new AtomicBoolean();
+    
     private final ConfigurationManager configManager;
-    private WebDriver driver;
+    private final ProfileTemplates profileTemplates;
+    private final DriverBinaries driverBinaries;
+    private final ThreadLocal<Map<BrowserType, WebDriver>> drivers =
+            ThreadLocal.withInitial(() -> new EnumMap<>(BrowserType.class));
     
     /**
      * Constructor with ConfigurationManager dependency.
@@ -32,113 +81,388 @@ public class DriverManager {
     @Inject
     public DriverManager(ConfigurationManager configManager) {
         this.configManager = configManager;
+        this.profileTemplates = new ProfileTemplates(Paths.get(configManager.getProfileTemplateDir()));
+        this.driverBinaries = new DriverBinaries(Paths.get(configManager.getDriverCacheDir()), configManager.isDriverCacheOffline());
     }
     
     /**
-     * Initialize the WebDriver based on configuration.
+     * Get the WebDriver of the current thread for the browser of its profile, initializing it on first use.
+     * With pooling enabled the session is leased from the shared pool of that browser.
      *
      * @return WebDriver instance
      */
-    public synchronized WebDriver getDriver() {
-        if (driver == null) {
-            initializeDriver();
+    public WebDriver getDriver() {
+        BrowserProfile profile = configManager.getBrowserProfile();
+        return drivers.get().computeIfAbsent(profile.getBrowserType(), type ->
+                configManager.isDriverPoolEnabled() ? getPool(profile).lease() : initializeDriver(profile));
+    }
+    
+    /**
+     * Resolve the driver and browser binaries of every browser in the matrix, so no session
+     * looks them up while a scenario runs.
+     *
+     * @return browsers that could not be resolved, empty if every browser was resolved
+     */
+    public Set<BrowserType> preflight() {
+        return preflight(configManager.getBrowserMatrix().stream()
+                .map(BrowserProfile::getBrowserType)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(BrowserType.class))));
+    }
+    
+    /**
+     * Resolve the driver and browser binaries of the given browsers.
+     *
+     * @param browserTypes browsers of the run
+     * @return browsers that could not be resolved, empty if every browser was resolved
+     */
+    public Set<BrowserType> preflight(Collection<BrowserType> browserTypes) {
+        return driverBinaries.preflight(browserTypes);
+    }
+    
+    /**
+     * Start pre-launching the pooled sessions of every browser in the matrix so the first scenarios
+     * do not pay for browser startup. Does nothing when pooling is disabled.
+     */
+    public void warmUpPool() {
+        if (configManager.isDriverPoolEnabled()) {
+            configManager.getBrowserMatrix().forEach(profile -> getPool(profile).warmUp());
         }
-        return driver;
     }
     
     /**
-     * Initialize the WebDriver based on the browser type configuration.
+     * Hand the WebDriver sessions of the current thread back to their pools, which reset them for the next lease.
+     * Without pooling the sessions stay with the thread, as before.
      */
-    private void initializeDriver() {
-        BrowserType browserType = configManager.getBrowserType();
-        boolean headless = configManager.isHeadless();
+    public void releaseDriver() {
+        if (!configManager.isDriverPoolEnabled() || drivers.get().isEmpty()) {
+            return;
+        }
+        log.debug("Returning WebDriver to pool for thread {}", Thread.currentThread().getName());
+        Map<BrowserType, WebDriver> threadDrivers = drivers.get();
+        threadDrivers.forEach((type, currentDriver) -> {
+            DriverPool pool = getPool(type);
+            if (pool != null) {
+                pool.release(currentDriver);
+            } else {
+                closeDriver(currentDriver);
+            }
+        });
+        threadDrivers.clear();
+    }
+    
+    /**
+     * Get the shared driver pool of a browser, creating it on first use.
+     *
+     * @param profile browser profile the pool launches sessions for
+     * @return DriverPool instance
+     */
+    private DriverPool getPool(BrowserProfile profile) {
+        synchronized (DriverManager.class) {
+            return POOLS.computeIfAbsent(profile.getBrowserType(), type ->
+                    new DriverPool(() -> initializeDriver(profile), DriverManager::closeDriver,
+                            configManager.getDriverPoolSize(), configManager.getDriverPoolMaxReuses()));
+        }
+    }
+    
+    /**
+     * Get the existing shared driver pool of a browser.
+     *
+     * @param browserType browser of the pool
+     * @return DriverPool instance, or null once {@link #quitAllDrivers()} has shut the pools down
+     */
+    private static DriverPool getPool(BrowserType browserType) {
+        synchronized (DriverManager.class) {
+            return POOLS.get(browserType);
+        }
+    }
+    
+    /**
+     * Initialize a WebDriver for a browser profile.
+     *
+     * @param profile browser and headless setting
+     * @return the new WebDriver instance
+     */
+    private WebDriver initializeDriver(BrowserProfile profile) {
+        BrowserType browserType = profile.getBrowserType();
+        boolean headless = profile.isHeadless();
         
-        log.info("Initializing {} browser in {} mode", browserType, headless ? "headless" : "normal");
+        log.info("Initializing {} browser in {} mode for thread {}",
+                browserType, headless ? "headless" : "normal", Thread.currentThread().getName());
         
+        if (browserType != BrowserType.LITE) {
+            // Already resolved by the preflight, unless this session was started without one
+            driverBinaries.resolve(browserType);
+        }
+        Path template = null;
+        if (configManager.isProfileTemplateEnabled() && ProfileTemplates.supports(browserType)) {
+            template = profileTemplates.prepare(browserType, dir -> launchBrowser(browserType, true, dir));
+        }
+        
+        long start = TraceRecorder.now();
+        Path profileDir = template != null ? ProfileTemplates.copy(template) : null;
+        WebDriver newDriver;
+        try {
+            newDriver = launchBrowser(browserType, headless, profileDir);
+        } catch (RuntimeException e) {
+            ProfileTemplates.delete(profileDir);
+            throw e;
+        }
+        TraceRecorder.record(TraceEventType.DRIVER_START, browserType.name(), start);
+        LaunchTimes.record(browserType, profileDir != null, (TraceRecorder.now() - start) / 1_000_000);
+        if (profileDir != null) {
+            SESSION_PROFILES.put(newDriver, profileDir);
+        }
+        
+        configureDriverTimeouts(newDriver);
+        attachResponseArchive(newDriver, browserType);
+        NetworkBlocker.apply(newDriver, configManager.getBlockList());
+        ACTIVE_DRIVERS.add(newDriver);
+        log.info("WebDriver initialized successfully");
+        return newDriver;
+    }
+    
+    /**
+     * Start a browser.
+     *
+     * @param browserType browser to start
+     * @param headless whether to run in headless mode
+     * @param profileDir profile directory to start from, or null for a new profile
+     * @return the new WebDriver instance
+     */
+    private WebDriver launchBrowser(BrowserType browserType, boolean headless, Path profileDir) {
         switch (browserType) {
             case CHROME:
-                initializeChromeDriver(headless);
-                break;
+                return initializeChromeDriver(headless, profileDir);
             case EDGE:
-                initializeEdgeDriver(headless);
-                break;
+                return initializeEdgeDriver(headless, profileDir);
+            case LITE:
+                return initializeLiteDriver();
             case FIREFOX:
             default:
-                initializeFirefoxDriver(headless);
-                break;
+                return initializeFirefoxDriver(headless, profileDir);
         }
-        
-        configureDriverTimeouts();
-        log.info("WebDriver initialized successfully");
+    }
+    
+    /**
+     * Get the browser executable resolved for a browser.
+     *
+     * @param browserType browser
+     * @return browser executable, or empty to let the driver find the installed browser
+     */
+    private static Optional<String> browserBinary(BrowserType browserType) {
+        return DriverBinaries.get(browserType)
+                .map(DriverBinaries.Binaries::getBrowserPath)
+                .map(Path::toString);
     }
     
     /**
      * Initialize ChromeDriver with options.
      *
      * @param headless whether to run in headless mode
+     * @param profileDir profile directory to start from, or null for a new profile
+     * @return ChromeDriver instance
      */
-    private void initializeChromeDriver(boolean headless) {
+    private WebDriver initializeChromeDriver(boolean headless, Path profileDir) {
         ChromeOptions options = new ChromeOptions();
+        options.setPageLoadStrategy(configManager.getPageLoadStrategy());
+        browserBinary(BrowserType.CHROME).ifPresent(options::setBinary);
         if (headless) {
             options.addArguments("--headless");
         }
+        if (profileDir != null) {
+            options.addArguments("--user-data-dir=" + profileDir.toAbsolutePath());
+            options.addArguments(ProfileTemplates.CHROMIUM_ARGUMENTS);
+        }
         options.addArguments("--start-maximized");
         options.addArguments("--disable-infobars");
         options.addArguments("--disable-notifications");
         
-        driver = new ChromeDriver(options);
+        return new ChromeDriver(options);
     }
     
     /**
      * Initialize FirefoxDriver with options.
      *
      * @param headless whether to run in headless mode
+     * @param profileDir profile directory to start from, or null for a new profile
+     * @return FirefoxDriver instance
      */
-    private void initializeFirefoxDriver(boolean headless) {
+    private WebDriver initializeFirefoxDriver(boolean headless, Path profileDir) {
         FirefoxOptions options = new FirefoxOptions();
+        options.setPageLoadStrategy(configManager.getPageLoadStrategy());
+        browserBinary(BrowserType.FIREFOX).ifPresent(options::setBinary);
         if (headless) {
             options.addArguments("-headless");
         }
+        if (profileDir != null) {
+            // Used in place by geckodriver, instead of zipping a FirefoxProfile over the wire
+            options.addArguments("-profile", profileDir.toAbsolutePath().toString());
+        }
+        if (configManager.getWaitMode() == WaitMode.EVENT || configManager.isDriverPoolEnabled()) {
+            // URL waits listen for navigation events, and the pool for the origins to clear on reset,
+            // which Firefox reports over BiDi
+            options.setCapability("webSocketUrl", true);
+        }
+        blockResourceTypes(options, configManager.getBlockList());
         
-        driver = new FirefoxDriver(options);
-        driver.manage().window().maximize();
+        WebDriver firefoxDriver = new FirefoxDriver(options);
+        firefoxDriver.manage().window().maximize();
+        return firefoxDriver;
+    }
+    
+    /**
+     * Block resource types through Firefox preferences.
+     * Firefox cannot block requests by URL pattern, so only images, fonts and media are blocked,
+     * and since preferences are set at launch the resources required by page objects are blocked too.
+     *
+     * @param options FirefoxOptions to configure
+     * @param blockList resources to block
+     */
+    private void blockResourceTypes(FirefoxOptions options, BlockList blockList) {
+        Set<ResourceType> types = blockList.getResourceTypes();
+        if (types.contains(ResourceType.IMAGE)) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (types.contains(ResourceType.FONT)) {
+            options.addPreference("browser.display.use_document_fonts", 0);
+        }
+        if (types.contains(ResourceType.MEDIA)) {
+            options.addPreference("media.autoplay.default", 5);
+            options.addPreference("media.preload.default", 0);
+            options.addPreference("media.preload.auto", 0);
+        }
+        if (!blockList.isEmpty() && FIREFOX_BLOCKING_LOGGED.compareAndSet(false, true)) {
+            log.warn("Firefox blocks resource types for the whole session, so page objects cannot exempt "
+                    + "the types they require, and it ignores the {} URL pattern(s)", blockList.getUrlPatterns().size());
+        }
     }
     
     /**
      * Initialize EdgeDriver with options.
      *
      * @param headless whether to run in headless mode
+     * @param profileDir profile directory to start from, or null for a new profile
+     * @return EdgeDriver instance
      */
-    private void initializeEdgeDriver(boolean headless) {
+    private WebDriver initializeEdgeDriver(boolean headless, Path profileDir) {
         EdgeOptions options = new EdgeOptions();
+        options.setPageLoadStrategy(configManager.getPageLoadStrategy());
+        browserBinary(BrowserType.EDGE).ifPresent(options::setBinary);
         if (headless) {
             options.addArguments("--headless");
         }
+        if (profileDir != null) {
+            options.addArguments("--user-data-dir=" + profileDir.toAbsolutePath());
+            options.addArguments(ProfileTemplates.CHROMIUM_ARGUMENTS);
+        }
         options.addArguments("--start-maximized");
         
-        driver = new EdgeDriver(options);
+        return new EdgeDriver(options);
+    }
+    
+    /**
+     * Initialize the in-JVM HtmlUnit driver. It starts in milliseconds with no browser process,
+     * runs JavaScript but does not apply CSS or download images, and cannot take screenshots.
+     *
+     * @return HtmlUnitDriver instance
+     */
+    private WebDriver initializeLiteDriver() {
+        HtmlUnitDriver liteDriver = new HtmlUnitDriver(BrowserVersion.CHROME, true);
+        WebClientOptions options = liteDriver.getWebClient().getOptions();
+        options.setCssEnabled(false);
+        options.setDownloadImages(false);
+        options.setThrowExceptionOnScriptError(false);
+        return liteDriver;
     }
     
     /**
      * Configure driver timeouts based on configuration.
+     * Implicit waits are disabled so a lookup never blocks inside an explicit wait.
+     *
+     * @param webDriver WebDriver to configure
      */
-    private void configureDriverTimeouts() {
-        driver.manage().timeouts().implicitlyWait(
-                TimeoutConstants.getImplicitWaitDuration(configManager.getImplicitTimeout()));
-        driver.manage().timeouts().pageLoadTimeout(
+    private void configureDriverTimeouts(WebDriver webDriver) {
+        webDriver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        webDriver.manage().timeouts().pageLoadTimeout(
                 TimeoutConstants.getPageLoadTimeout(configManager.getPageLoadTimeout()));
-        driver.manage().timeouts().scriptTimeout(
+        webDriver.manage().timeouts().scriptTimeout(
                 TimeoutConstants.getScriptTimeout(configManager.getScriptTimeout()));
     }
     
     /**
-     * Quit the WebDriver instance.
+     * Route the network traffic of a new session through the response archive, when enabled.
+     * Requests are intercepted over DevTools, so only Chromium-based browsers support it;
+     * other browsers keep using the live network.
+     *
+     * @param webDriver WebDriver to intercept
+     * @param browserType browser of the session
+     */
+    private void attachResponseArchive(WebDriver webDriver, BrowserType browserType) {
+        ArchiveMode mode = configManager.getArchiveMode();
+        if (mode == ArchiveMode.OFF) {
+            return;
+        }
+        if (!(webDriver instanceof ChromiumDriver)) {
+            log.warn("Response archive needs a Chromium-based browser, {} uses the live network", browserType);
+            return;
+        }
+        
+        ResponseArchive archive = ResponseArchive.open(Paths.get(configManager.getArchiveFile()));
+        try {
+            new NetworkInterceptor(webDriver,
+                    new RecordReplayFilter(archive, mode, configManager.getArchiveIgnoredParams()));
+            log.info("Network traffic in {} mode against {} ({} responses)",
+                    mode, configManager.getArchiveFile(), archive.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not intercept network traffic, using the live network: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Quit the WebDriver instances of the current thread.
      */
     public void quitDriver() {
-        if (driver != null) {
-            log.info("Closing WebDriver");
-            driver.quit();
-            driver = null;
+        Map<BrowserType, WebDriver> threadDrivers = drivers.get();
+        threadDrivers.forEach((type, currentDriver) -> {
+            log.info("Closing {} WebDriver for thread {}", type, Thread.currentThread().getName());
+            DriverPool pool = configManager.isDriverPoolEnabled() ? getPool(type) : null;
+            if (pool != null) {
+                pool.discard(currentDriver);
+            } else {
+                closeDriver(currentDriver);
+            }
+        });
+        threadDrivers.clear();
+    }
+    
+    /**
+     * Quit every WebDriver session still open, whichever thread started it,
+     * including the idle sessions of the pool, and log the launch times of the run.
+     */
+    public static void quitAllDrivers() {
+        synchronized (DriverManager.class) {
+            POOLS.values().forEach(DriverPool::shutdown);
+            POOLS.clear();
+        }
+        for (WebDriver activeDriver : ACTIVE_DRIVERS) {
+            log.info("Closing remaining WebDriver session");
+            closeDriver(activeDriver);
+        }
+        LaunchTimes.logSummary();
+    }
+    
+    /**
+     * Quit a session, stop tracking it and remove its profile copy.
+     *
+     * @param webDriver WebDriver to quit
+     */
+    private static void closeDriver(WebDriver webDriver) {
+        ACTIVE_DRIVERS.remove(webDriver);
+        try {
+            webDriver.quit();
+        } catch (Exception e) {
+            log.warn("Failed to close WebDriver session: {}", e.getMessage());
         }
+        ProfileTemplates.delete(SESSION_PROFILES.remove(webDriver));
     }
 }
@@ -0,0 +1,369 @@
+package com.ferrari.config;
+
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.bidi.BrowsingContextInspector;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Pool of pre-launched WebDriver sessions.
+ * Scenarios lease a session and return it when they finish. Returned sessions are reset (extra
+ * windows, cookies and storage of every origin they visited) instead of being quit, and retired once
+ * they have been leased {@code maxReuses} times. The visited origins are reported over DevTools by
+ * Chromium-based sessions and over BiDi by Firefox sessions; sessions reporting neither, such as the
+ * lite driver, cannot be reset, so they are used once and replaced in the background. Every session
+ * quit on release is replaced the same way.
+ */
+@Log4j2
+public class DriverPool {
+    private static final long LAUNCH_POLL_MILLIS = 100;
+    
+    /**
+     * Storage cleared for every origin a Chromium session visited; session storage is cleared separately.
+     */
+    private static final String CLEARED_STORAGE_TYPES =
+            "local_storage,indexeddb,websql,cache_storage,service_workers,file_systems";
+    
+    /**
+     * Page loaded on each visited origin by a reset over WebDriver, small and served by most sites.
+     */
+    private static final String ORIGIN_RESET_PATH = "/robots.txt";
+    
+    /**
+     * Clears the storage of the current origin.
+     */
+    private static final String CLEAR_STORAGE_SCRIPT = "window.localStorage.clear(); window.sessionStorage.clear();";
+    
+    /**
+     * Origin of every frame a Chromium session commits a navigation in.
+     */
+    private static final Event<String> FRAME_NAVIGATED = new Event<>("Page.frameNavigated", input -> {
+        Map<String, Object> params = input.read(Json.MAP_TYPE);
+        Object frame = params.get("frame");
+        return frame instanceof Map ? (String) ((Map<?, ?>) frame).get("securityOrigin") : null;
+    });
+    
+    private final Supplier<WebDriver> driverFactory;
+    private final Consumer<WebDriver> driverCloser;
+    private final int size;
+    private final int maxReuses;
+    private final BlockingQueue<WebDriver> idleDrivers = new LinkedBlockingQueue<>();
+    private final Map<WebDriver, Integer> leaseCounts = new ConcurrentHashMap<>();
+    private final Map<WebDriver, Set<String>> visitedOrigins = new ConcurrentHashMap<>();
+    private final AtomicInteger launching = new AtomicInteger();
+    private final ExecutorService launcher;
+    
+    /**
+     * Constructor with the callbacks used to launch and close sessions.
+     *
+     * @param driverFactory creates a new, fully configured WebDriver
+     * @param driverCloser quits a WebDriver the pool no longer needs
+     * @param size number of idle sessions kept warm
+     * @param maxReuses number of leases after which a session is quit
+     */
+    public DriverPool(Supplier<WebDriver> driverFactory, Consumer<WebDriver> driverCloser, int size, int maxReuses) {
+        this.driverFactory = driverFactory;
+        this.driverCloser = driverCloser;
+        this.size = Math.max(1, size);
+        this.maxReuses = Math.max(1, maxReuses);
+        this.launcher = Executors.newFixedThreadPool(this.size, runnable -> {
+            Thread thread = new Thread(runnable, "driver-pool-launcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Launch sessions in the background until the pool holds {@code size} idle sessions.
+     */
+    public void warmUp() {
+        if (launcher.isShutdown()) {
+            return;
+        }
+        int missing = size - idleDrivers.size() - launching.get();
+        log.info("Warming up driver pool with {} session(s)", Math.max(0, missing));
+        
+        for (int i = 0; i < missing; i++) {
+            launching.incrementAndGet();
+            launcher.submit(() -> {
+                try {
+                    idleDrivers.add(launch());
+                } catch (Exception e) {
+                    log.error("Failed to pre-launch WebDriver session: {}", e.getMessage(), e);
+                } finally {
+                    launching.decrementAndGet();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Lease a session. Uses an idle session if there is one, waits for a session
+     * that is still starting up, and only launches a new one when neither exists.
+     *
+     * @return leased WebDriver
+     */
+    public WebDriver lease() {
+        try {
+            while (true) {
+                WebDriver pooled = idleDrivers.poll();
+                if (pooled == null && launching.get() > 0) {
+                    pooled = idleDrivers.poll(LAUNCH_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                if (pooled != null) {
+                    return markLeased(pooled);
+                }
+                if (launching.get() == 0) {
+                    return markLeased(launch());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a pooled WebDriver", e);
+        }
+    }
+    
+    /**
+     * Return a leased session to the pool.
+     * The session is reset before it becomes available again. It is quit instead if the pool
+     * is already full, and quit and replaced if it cannot be reset, reached its reuse limit,
+     * or the reset fails.
+     *
+     * @param driver WebDriver previously obtained from {@link #lease()}
+     */
+    public void release(WebDriver driver) {
+        int leases = leaseCounts.getOrDefault(driver, 0);
+        if (!visitedOrigins.containsKey(driver)) {
+            log.debug("Replacing used WebDriver session, the origins it visited are unknown");
+            replace(driver);
+            return;
+        }
+        if (leases >= maxReuses) {
+            log.info("Retiring WebDriver session after {} leases", leases);
+            replace(driver);
+            return;
+        }
+        if (idleDrivers.size() >= size) {
+            log.debug("Driver pool is full, closing returned session");
+            discard(driver);
+            return;
+        }
+        
+        try {
+            reset(driver);
+            idleDrivers.add(driver);
+        } catch (Exception e) {
+            log.warn("Failed to reset WebDriver session, closing it: {}", e.getMessage());
+            replace(driver);
+        }
+    }
+    
+    /**
+     * Quit a session and forget about it.
+     *
+     * @param driver WebDriver to quit
+     */
+    public void discard(WebDriver driver) {
+        leaseCounts.remove(driver);
+        visitedOrigins.remove(driver);
+        idleDrivers.remove(driver);
+        driverCloser.accept(driver);
+    }
+    
+    /**
+     * Quit a session and launch its replacement in the background, so the next lease does not wait for a launch.
+     *
+     * @param driver WebDriver to quit
+     */
+    private void replace(WebDriver driver) {
+        discard(driver);
+        warmUp();
+    }
+    
+    /**
+     * Quit every idle session and stop launching new ones.
+     */
+    public void shutdown() {
+        launcher.shutdownNow();
+        List<WebDriver> drivers = new ArrayList<>();
+        idleDrivers.drainTo(drivers);
+        log.info("Shutting down driver pool with {} idle session(s)", drivers.size());
+        drivers.forEach(this::discard);
+    }
+    
+    /**
+     * Launch a new session that has not been leased yet.
+     *
+     * @return new WebDriver
+     */
+    private WebDriver launch() {
+        WebDriver driver = driverFactory.get();
+        leaseCounts.put(driver, 0);
+        if (driver instanceof ChromiumDriver) {
+            trackOrigins((ChromiumDriver) driver);
+        } else if (driver instanceof HasBiDi && ((HasBiDi) driver).maybeGetBiDi().isPresent()) {
+            trackOriginsOverBiDi(driver);
+        }
+        return driver;
+    }
+    
+    /**
+     * Record the origin of every frame a session navigates, so a reset can clear their storage.
+     *
+     * @param driver Chromium-based session
+     */
+    private void trackOrigins(ChromiumDriver driver) {
+        Set<String> origins = ConcurrentHashMap.newKeySet();
+        visitedOrigins.put(driver, origins);
+        try {
+            DevTools devTools = driver.getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<>("Page.enable", Map.of()));
+            devTools.addListener(FRAME_NAVIGATED, origin -> {
+                if (origin != null && origin.startsWith("http")) {
+                    origins.add(origin);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Without the visited origins the session cannot be reset, so it is used once
+            log.warn("Could not track visited origins, session will not be reused: {}", e.getMessage());
+            visitedOrigins.remove(driver);
+        }
+    }
+    
+    /**
+     * Record the origin of every page a BiDi session loads, in any window or frame.
+     *
+     * @param driver session started with {@code webSocketUrl}
+     */
+    private void trackOriginsOverBiDi(WebDriver driver) {
+        Set<String> origins = ConcurrentHashMap.newKeySet();
+        visitedOrigins.put(driver, origins);
+        try {
+            BrowsingContextInspector inspector = new BrowsingContextInspector(driver);
+            inspector.onDomContentLoaded(navigation -> addOrigin(origins, navigation.getUrl()));
+            inspector.onBrowsingContextLoaded(navigation -> addOrigin(origins, navigation.getUrl()));
+        } catch (RuntimeException e) {
+            log.warn("Could not track visited origins, session will not be reused: {}", e.getMessage());
+            visitedOrigins.remove(driver);
+        }
+    }
+    
+    /**
+     * Add the origin of a loaded page, ignoring pages that have no web origin such as about:blank.
+     *
+     * @param origins origins visited by the session
+     * @param url URL of the loaded page
+     */
+    private static void addOrigin(Set<String> origins, String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() != null && uri.getScheme() != null && uri.getScheme().startsWith("http")) {
+                origins.add(uri.getScheme() + "://" + uri.getHost() + (uri.getPort() == -1 ? "" : ":" + uri.getPort()));
+            }
+        } catch (IllegalArgumentException | NullPointerException e) {
+            log.debug("Ignoring page without an origin: {}", url);
+        }
+    }
+    
+    /**
+     * Count a lease against the reuse limit of a session.
+     *
+     * @param driver WebDriver being leased
+     * @return the same WebDriver
+     */
+    private WebDriver markLeased(WebDriver driver) {
+        leaseCounts.merge(driver, 1, Integer::sum);
+        return driver;
+    }
+    
+    /**
+     * Bring a session back to a clean state: one window on about:blank, no cookies
+     * and empty storage for every origin it visited since its last reset.
+     *
+     * @param driver WebDriver to reset
+     */
+    private void reset(WebDriver driver) {
+        Set<String> origins = visitedOrigins.get(driver);
+        if (origins == null) {
+            throw new IllegalStateException("visited origins are unknown");
+        }
+        List<String> handles = new ArrayList<>(driver.getWindowHandles());
+        String mainHandle = handles.get(0);
+        for (String handle : handles.subList(1, handles.size())) {
+            driver.switchTo().window(handle).close();
+        }
+        driver.switchTo().window(mainHandle);
+        
+        List<String> cleared = new ArrayList<>(origins);
+        if (driver instanceof ChromiumDriver) {
+            driver.navigate().to("about:blank");
+            clearOverDevTools((ChromiumDriver) driver, cleared);
+        } else {
+            clearOverWebDriver(driver, cleared);
+            driver.navigate().to("about:blank");
+        }
+        origins.removeAll(cleared);
+        log.debug("Cleared cookies and storage of {} origin(s)", cleared.size());
+    }
+    
+    /**
+     * Clear the cookies of every domain and the storage of the given origins over DevTools,
+     * without loading any page.
+     *
+     * @param session Chromium-based session
+     * @param origins origins whose storage is cleared
+     */
+    private void clearOverDevTools(ChromiumDriver session, List<String> origins) {
+        session.executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+        for (String origin : origins) {
+            session.executeCdpCommand("Storage.clearDataForOrigin",
+                    Map.of("origin", origin, "storageTypes", CLEARED_STORAGE_TYPES));
+            session.executeCdpCommand("DOMStorage.clear",
+                    Map.of("storageId", Map.of("securityOrigin", origin, "isLocalStorage", false)));
+        }
+    }
+    
+    /**
+     * Clear the cookies and local and session storage of the given origins over plain WebDriver,
+     * which only reaches the current page's origin, so a small page of each origin is loaded in turn.
+     *
+     * @param driver WebDriver session
+     * @param origins origins to clear
+     */
+    private void clearOverWebDriver(WebDriver driver, List<String> origins) {
+        for (String origin : origins) {
+            driver.navigate().to(origin + ORIGIN_RESET_PATH);
+            driver.manage().deleteAllCookies();
+            try {
+                ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+            } catch (WebDriverException e) {
+                // Pages served with an opaque origin (e.g. sandboxed) have no storage to clear
+                log.debug("Could not clear storage of {}: {}", origin, e.getMessage());
+            }
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.ferrari.config;
 
-import com.ferrari.pages.BasePage;
+import com.ferrari.metrics.CommandMetrics;
 import com.ferrari.pages.FerrariSF90Page;
 import com.ferrari.pages.GoogleHomePage;
 import com.ferrari.pages.GoogleSearchResultsPage;
@@ -10,6 +10,8 @@ import com.google.inject.Scopes;
 import lombok.extern.log4j.Log4j2;
 import org.openqa.selenium.WebDriver;
 
+import java.nio.file.Paths;
+
 /**
  * Guice module for dependency injection configuration.
  */
@@ -28,7 +30,6 @@ public class GuiceModule extends AbstractModule {
         bind(DriverManager.class).in(Scopes.SINGLETON);
         
         // Bind page objects
-        bind(BasePage.class);
         bind(GoogleHomePage.class);
         bind(GoogleSearchResultsPage.class);
         bind(FerrariSF90Page.class);
@@ -36,13 +37,22 @@ public class GuiceModule extends AbstractModule {
     
     /**
      * Provider method for WebDriver instance.
+     * When command metrics or tracing are enabled the driver is decorated so every command is timed.
      *
      * @param driverManager DriverManager instance
+     * @param configManager ConfigurationManager instance
      * @return WebDriver instance
      */
     @Provides
-    public WebDriver provideWebDriver(DriverManager driverManager) {
+    public WebDriver provideWebDriver(DriverManager driverManager, ConfigurationManager configManager) {
         log.debug("Providing WebDriver instance");
-        return driverManager.getDriver();
+        WebDriver driver = driverManager.getDriver();
+        if (configManager.isCommandMetrics()) {
+            return CommandMetrics.decorate(driver, Paths.get(configManager.getCommandMetricsReport()));
+        }
+        if (configManager.isTraceEnabled()) {
+            return CommandMetrics.decorate(driver, null);
+        }
+        return driver;
     }
 }
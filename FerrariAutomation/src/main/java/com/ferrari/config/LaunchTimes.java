@@ -0,0 +1,58 @@
+package com.ferrari.config;
+
+import com.ferrari.constants.BrowserType;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Launch durations of browser sessions, from the start of the launch to a usable session
+ * (including the copy of the profile template), summarised per browser at the end of the run.
+ */
+@Log4j2
+public class LaunchTimes {
+    private static final Map<String, LongSummaryStatistics> LAUNCHES = new TreeMap<>();
+    
+    private LaunchTimes() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Record the launch of a session.
+     *
+     * @param browserType browser launched
+     * @param fromTemplate whether the session started from a profile template
+     * @param millis launch duration in milliseconds
+     */
+    public static void record(BrowserType browserType, boolean fromTemplate, long millis) {
+        String key = label(browserType, fromTemplate);
+        log.info("Launched {} in {} ms", key, millis);
+        synchronized (LAUNCHES) {
+            LAUNCHES.computeIfAbsent(key, k -> new LongSummaryStatistics()).accept(millis);
+        }
+    }
+    
+    /**
+     * Log the launch durations of every browser and clear them.
+     */
+    public static void logSummary() {
+        synchronized (LAUNCHES) {
+            LAUNCHES.forEach((key, stats) -> log.info("Browser launches {}: {} launches, avg {} ms, min {} ms, max {} ms",
+                    key, stats.getCount(), Math.round(stats.getAverage()), stats.getMin(), stats.getMax()));
+            LAUNCHES.clear();
+        }
+    }
+    
+    /**
+     * Label of a browser and profile kind in the summary.
+     *
+     * @param browserType browser launched
+     * @param fromTemplate whether the session started from a profile template
+     * @return e.g. {@code CHROME} or {@code CHROME (profile template)}
+     */
+    private static String label(BrowserType browserType, boolean fromTemplate) {
+        return fromTemplate ? browserType + " (profile template)" : browserType.name();
+    }
+}
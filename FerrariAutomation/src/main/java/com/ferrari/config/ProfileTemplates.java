@@ -0,0 +1,274 @@
+package com.ferrari.config;
+
+import com.ferrari.constants.BrowserType;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Browser profile directories built once and copied for every new session.
+ * A template has first-run screens, default-browser checks, safe browsing lists, component and
+ * extension updates, telemetry and sync turned off, and is primed by one browser launch so the
+ * state a browser creates on its first start is already on disk. Sessions start from a copy of the
+ * template instead of an empty profile.
+ * Templates are rebuilt when the settings below change; delete the template directory to force it.
+ */
+@Log4j2
+public class ProfileTemplates {
+    /**
+     * Chromium switches turning off first-run setup and background services.
+     */
+    public static final List<String> CHROMIUM_ARGUMENTS = List.of(
+            "--no-first-run",
+            "--no-default-browser-check",
+            "--disable-background-networking",
+            "--disable-component-update",
+            "--disable-default-apps",
+            "--disable-extensions",
+            "--disable-sync",
+            "--disable-client-side-phishing-detection",
+            "--disable-domain-reliability",
+            "--safebrowsing-disable-auto-update",
+            "--metrics-recording-only",
+            "--password-store=basic",
+            "--use-mock-keychain");
+    
+    /**
+     * Chromium profile preferences, written to {@code Default/Preferences}.
+     */
+    private static final Map<String, Object> CHROMIUM_PREFERENCES = Map.of(
+            "browser", Map.of("check_default_browser", false, "has_seen_welcome_page", true),
+            "distribution", Map.of("skip_first_run_ui", true, "import_bookmarks", false,
+                    "suppress_first_run_default_browser_prompt", true),
+            "safebrowsing", Map.of("enabled", false),
+            "translate", Map.of("enabled", false),
+            "credentials_enable_service", false,
+            "profile", Map.of("password_manager_enabled", false));
+    
+    /**
+     * Firefox preferences, written to {@code user.js}.
+     */
+    private static final Map<String, Object> FIREFOX_PREFERENCES = firefoxPreferences();
+    
+    /**
+     * Files that lock a profile to a running browser and must not be copied.
+     */
+    private static final Set<String> LOCK_FILES = Set.of(
+            "SingletonLock", "SingletonSocket", "SingletonCookie", "lockfile", "lock", ".parentlock", "parent.lock");
+    
+    private static final String VERSION_FILE = ".template-version";
+    
+    private final Path root;
+    private final Set<BrowserType> checked = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * Constructor.
+     *
+     * @param root directory holding one template per browser
+     */
+    public ProfileTemplates(Path root) {
+        this.root = root;
+    }
+    
+    /**
+     * Check whether a browser starts from a profile directory.
+     *
+     * @param browserType browser
+     * @return true for Chrome, Edge and Firefox
+     */
+    public static boolean supports(BrowserType browserType) {
+        return browserType != BrowserType.LITE;
+    }
+    
+    /**
+     * Make sure the template of a browser is up to date, building it if needed.
+     * Building writes the fixed settings, then launches the browser once on the template
+     * and quits it, so later sessions skip the first-start work.
+     *
+     * @param browserType browser of the template
+     * @param launcher starts a browser on a profile directory, used to prime the template
+     * @return template directory
+     */
+    public Path prepare(BrowserType browserType, Function<Path, WebDriver> launcher) {
+        Path template = root.resolve(browserType.name().toLowerCase());
+        if (checked.contains(browserType)) {
+            return template;
+        }
+        synchronized (this) {
+            if (checked.contains(browserType)) {
+                return template;
+            }
+            try {
+                String version = version(browserType);
+                Path versionFile = template.resolve(VERSION_FILE);
+                if (!Files.exists(versionFile) || !version.equals(Files.readString(versionFile, StandardCharsets.UTF_8))) {
+                    if (build(browserType, template, launcher)) {
+                        Files.writeString(versionFile, version, StandardCharsets.UTF_8);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to build profile template " + template, e);
+            } finally {
+                checked.add(browserType);
+            }
+            return template;
+        }
+    }
+    
+    /**
+     * Copy a template into a new directory for one session.
+     *
+     * @param template template directory
+     * @return profile directory of the session, to be removed with {@link #delete(Path)}
+     */
+    public static Path copy(Path template) {
+        try {
+            Path target = Files.createTempDirectory("ferrari-profile-");
+            Files.walkFileTree(template, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    Files.createDirectories(target.resolve(template.relativize(dir).toString()));
+                    return FileVisitResult.CONTINUE;
+                }
+                
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    String name = file.getFileName().toString();
+                    if (!LOCK_FILES.contains(name) && !VERSION_FILE.equals(name) && attrs.isRegularFile()) {
+                        Files.copy(file, target.resolve(template.relativize(file).toString()),
+                                StandardCopyOption.COPY_ATTRIBUTES);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to copy profile template " + template, e);
+        }
+    }
+    
+    /**
+     * Remove a profile directory, ignoring files the browser may still hold.
+     *
+     * @param directory profile directory
+     */
+    public static void delete(Path directory) {
+        if (directory == null || !Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.debug("Could not delete {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.debug("Could not delete profile directory {}: {}", directory, e.getMessage());
+        }
+    }
+    
+    /**
+     * Write the settings of a template and prime it with one launch.
+     *
+     * @param browserType browser of the template
+     * @param template template directory
+     * @param launcher starts a browser on a profile directory
+     * @return true if the template was primed, false if it only has its settings and is rebuilt next run
+     * @throws IOException if the template cannot be written
+     */
+    private boolean build(BrowserType browserType, Path template, Function<Path, WebDriver> launcher) throws IOException {
+        log.info("Building {} profile template in {}", browserType, template);
+        long start = System.nanoTime();
+        delete(template);
+        Files.createDirectories(template);
+        if (browserType == BrowserType.FIREFOX) {
+            String userJs = FIREFOX_PREFERENCES.entrySet().stream()
+                    .map(pref -> "user_pref(\"" + pref.getKey() + "\", " + new Json().toJson(pref.getValue()) + ");")
+                    .collect(Collectors.joining(System.lineSeparator(), "", System.lineSeparator()));
+            Files.writeString(template.resolve("user.js"), userJs, StandardCharsets.UTF_8);
+        } else {
+            Files.createDirectories(template.resolve("Default"));
+            Files.writeString(template.resolve("Default").resolve("Preferences"),
+                    new Json().toJson(CHROMIUM_PREFERENCES), StandardCharsets.UTF_8);
+            Files.writeString(template.resolve("First Run"), "", StandardCharsets.UTF_8);
+        }
+        
+        boolean primed = true;
+        try {
+            launcher.apply(template).quit();
+        } catch (RuntimeException e) {
+            log.warn("Could not prime {} profile template, sessions start from its settings only: {}",
+                    browserType, e.getMessage());
+            primed = false;
+        }
+        log.info("{} profile template built in {} ms", browserType, (System.nanoTime() - start) / 1_000_000);
+        return primed;
+    }
+    
+    /**
+     * Fingerprint of the settings of a template, so templates built with other settings are rebuilt.
+     *
+     * @param browserType browser of the template
+     * @return version string
+     */
+    private static String version(BrowserType browserType) {
+        Object settings = browserType == BrowserType.FIREFOX
+                ? FIREFOX_PREFERENCES
+                : List.of(CHROMIUM_ARGUMENTS, CHROMIUM_PREFERENCES);
+        return Integer.toHexString(Objects.hash(browserType.name(), settings));
+    }
+    
+    /**
+     * Firefox preferences turning off first-run pages and background services.
+     *
+     * @return preferences in a stable order
+     */
+    private static Map<String, Object> firefoxPreferences() {
+        Map<String, Object> prefs = new LinkedHashMap<>();
+        prefs.put("browser.shell.checkDefaultBrowser", false);
+        prefs.put("browser.startup.homepage_override.mstone", "ignore");
+        prefs.put("browser.aboutwelcome.enabled", false);
+        prefs.put("browser.startup.page", 0);
+        prefs.put("startup.homepage_welcome_url", "about:blank");
+        prefs.put("datareporting.policy.dataSubmissionEnabled", false);
+        prefs.put("datareporting.healthreport.uploadEnabled", false);
+        prefs.put("toolkit.telemetry.enabled", false);
+        prefs.put("toolkit.telemetry.reportingpolicy.firstRun", false);
+        prefs.put("browser.safebrowsing.malware.enabled", false);
+        prefs.put("browser.safebrowsing.phishing.enabled", false);
+        prefs.put("browser.safebrowsing.downloads.enabled", false);
+        prefs.put("browser.safebrowsing.update.enabled", false);
+        prefs.put("app.update.auto", false);
+        prefs.put("app.update.enabled", false);
+        prefs.put("extensions.update.enabled", false);
+        prefs.put("extensions.getAddons.cache.enabled", false);
+        prefs.put("network.captive-portal-service.enabled", false);
+        prefs.put("network.connectivity-service.enabled", false);
+        prefs.put("browser.newtabpage.enabled", false);
+        prefs.put("browser.newtabpage.activity-stream.feeds.system.topstories", false);
+        prefs.put("browser.discovery.enabled", false);
+        return prefs;
+    }
+}
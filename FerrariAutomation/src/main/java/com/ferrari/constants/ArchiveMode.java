@@ -0,0 +1,37 @@
+package com.ferrari.constants;
+
+/**
+ * Enum representing how network traffic is handled by the response archive.
+ */
+public enum ArchiveMode {
+    /**
+     * Use the live network, no archive.
+     */
+    OFF,
+    /**
+     * Answer from the archive when possible; fetch and archive everything else.
+     */
+    RECORD,
+    /**
+     * Answer only from the archive, never touching the network.
+     */
+    REPLAY;
+
+    /**
+     * Convert a string to corresponding archive mode enum.
+     *
+     * @param mode the archive mode name as string
+     * @return the matching ArchiveMode enum
+     */
+    public static ArchiveMode fromString(String mode) {
+        if (mode == null || mode.isEmpty()) {
+            return OFF; // Default archive mode
+        }
+
+        try {
+            return valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return OFF; // Default to the live network if not recognized
+        }
+    }
+}
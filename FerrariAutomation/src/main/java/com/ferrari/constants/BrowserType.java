@@ -6,7 +6,11 @@ package com.ferrari.constants;
 public enum BrowserType {
     CHROME,
     FIREFOX,
-    EDGE;
+    EDGE,
+    /**
+     * In-JVM HtmlUnit driver without a rendering engine, for checks that do not need a real browser.
+     */
+    LITE;
 
     /**
      * Convert a string to corresponding browser type enum.
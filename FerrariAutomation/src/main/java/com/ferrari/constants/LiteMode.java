@@ -0,0 +1,37 @@
+package com.ferrari.constants;
+
+/**
+ * Enum representing how scenarios tagged {@code @lite} use the in-JVM {@link BrowserType#LITE} driver.
+ */
+public enum LiteMode {
+    /**
+     * Run every scenario on the configured browser.
+     */
+    OFF,
+    /**
+     * Run scenarios tagged {@code @lite} on the lite driver instead of the configured browser.
+     */
+    ON,
+    /**
+     * Run scenarios tagged {@code @lite} on both the lite driver and the configured browser, to compare timings.
+     */
+    COMPARE;
+
+    /**
+     * Convert a string to corresponding lite mode enum.
+     *
+     * @param mode the lite mode name as string
+     * @return the matching LiteMode enum
+     */
+    public static LiteMode fromString(String mode) {
+        if (mode == null || mode.isEmpty()) {
+            return OFF; // Default lite mode
+        }
+
+        try {
+            return valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return OFF; // Default to real browsers if not recognized
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.ferrari.constants;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enum representing kinds of page resources that can be blocked during navigation.
+ * DevTools only blocks by URL, so each type is matched by its file extensions.
+ */
+public enum ResourceType {
+    IMAGE("png", "jpg", "jpeg", "gif", "webp", "avif", "svg", "ico"),
+    MEDIA("mp4", "webm", "ogg", "mov", "m3u8", "mp3"),
+    FONT("woff", "woff2", "ttf", "otf", "eot"),
+    STYLESHEET("css"),
+    SCRIPT("js");
+    
+    private final String[] extensions;
+    
+    /**
+     * Constructor with the file extensions of the type.
+     *
+     * @param extensions file extensions, without the dot
+     */
+    ResourceType(String... extensions) {
+        this.extensions = extensions;
+    }
+    
+    /**
+     * Get the URL patterns matching resources of this type, with and without a query string.
+     *
+     * @return URL patterns using {@code *} as wildcard
+     */
+    public List<String> getUrlPatterns() {
+        List<String> patterns = new ArrayList<>();
+        for (String extension : extensions) {
+            patterns.add("*." + extension);
+            patterns.add("*." + extension + "?*");
+        }
+        return patterns;
+    }
+
+    /**
+     * Convert a string to corresponding resource type enum.
+     *
+     * @param type the resource type name as string
+     * @return the matching ResourceType enum, or null if not recognized
+     */
+    public static ResourceType fromString(String type) {
+        if (type == null || type.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return valueOf(type.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
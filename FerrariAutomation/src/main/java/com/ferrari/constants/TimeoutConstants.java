@@ -11,15 +11,10 @@ public final class TimeoutConstants {
     }
 
     // Default timeout values in seconds
-    public static final int DEFAULT_IMPLICIT_TIMEOUT = 10;
     public static final int DEFAULT_PAGE_LOAD_TIMEOUT = 30;
     public static final int DEFAULT_SCRIPT_TIMEOUT = 30;
     
     // Convert to Duration objects for Selenium usage
-    public static Duration getImplicitWaitDuration(int seconds) {
-        return Duration.ofSeconds(seconds);
-    }
-    
     public static Duration getPageLoadTimeout(int seconds) {
         return Duration.ofSeconds(seconds);
     }
@@ -32,4 +27,7 @@ public final class TimeoutConstants {
     public static final Duration SHORT_WAIT = Duration.ofSeconds(5);
     public static final Duration MEDIUM_WAIT = Duration.ofSeconds(10);
     public static final Duration LONG_WAIT = Duration.ofSeconds(30);
+    
+    // Upper bound for checks that an element is absent
+    public static final Duration ABSENCE_WAIT = Duration.ofSeconds(2);
 }
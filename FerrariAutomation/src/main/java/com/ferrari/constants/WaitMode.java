@@ -0,0 +1,34 @@
+package com.ferrari.constants;
+
+/**
+ * Enum representing how explicit waits are evaluated.
+ */
+public enum WaitMode {
+    /**
+     * Poll the condition over WebDriver until it holds.
+     */
+    POLLING,
+    /**
+     * Watch the condition inside the browser, or the navigation events of the session for URL conditions,
+     * and return as soon as it holds.
+     */
+    EVENT;
+
+    /**
+     * Convert a string to corresponding wait mode enum.
+     *
+     * @param mode the wait mode name as string
+     * @return the matching WaitMode enum
+     */
+    public static WaitMode fromString(String mode) {
+        if (mode == null || mode.isEmpty()) {
+            return POLLING; // Default wait mode
+        }
+
+        try {
+            return valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return POLLING; // Default to polling if not recognized
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ferrari.load;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Scripted user journey driven repeatedly by the {@link LoadGenerator}.
+ * Each step is wrapped in {@link JourneySteps#step}, so it is timed and followed by the think time.
+ */
+@FunctionalInterface
+public interface Journey {
+    /**
+     * Run the journey once.
+     *
+     * @param driver browser session of the virtual user
+     * @param steps times the steps of this iteration
+     */
+    void run(WebDriver driver, JourneySteps steps);
+}
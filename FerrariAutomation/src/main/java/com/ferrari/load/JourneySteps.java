@@ -0,0 +1,74 @@
+package com.ferrari.load;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Times the steps of one virtual user's journey and pauses for the think time after each step,
+ * outside the measured latency.
+ */
+public class JourneySteps {
+    private final LoadStats stats;
+    private final Duration thinkTime;
+    
+    /**
+     * Constructor.
+     *
+     * @param stats statistics the step latencies are recorded in
+     * @param thinkTime pause after each step
+     */
+    public JourneySteps(LoadStats stats, Duration thinkTime) {
+        this.stats = stats;
+        this.thinkTime = thinkTime;
+    }
+    
+    /**
+     * Run and time a step that produces a result, such as the next page object.
+     * A failing step is recorded as an error and ends the iteration.
+     *
+     * @param name step name shown in the report
+     * @param action step to run
+     * @param <T> Type of the result
+     * @return result of the step
+     */
+    public <T> T step(String name, Supplier<T> action) {
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            stats.recordError(name);
+            throw e;
+        }
+        stats.record(name, System.nanoTime() - start);
+        think();
+        return result;
+    }
+    
+    /**
+     * Run and time a step without result.
+     *
+     * @param name step name shown in the report
+     * @param action step to run
+     */
+    public void step(String name, Runnable action) {
+        step(name, () -> {
+            action.run();
+            return null;
+        });
+    }
+    
+    /**
+     * Pause for the think time.
+     */
+    private void think() {
+        if (thinkTime.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(thinkTime.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.ferrari.load;
+
+import com.ferrari.config.BrowserProfile;
+import com.ferrari.config.ConfigurationManager;
+import com.ferrari.config.DriverManager;
+import com.ferrari.constants.BrowserType;
+import com.ferrari.performance.PagePerformance;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives concurrent virtual users through a {@link Journey}.
+ * Each user runs on its own thread with its own headless browser session, starts after its share
+ * of the ramp-up, and repeats the journey until the profile's duration or iteration count is reached.
+ * A failed journey is counted, its session replaced, and the user carries on with the next iteration.
+ * Page load measurement is turned off for the users, so step latencies only cover the steps.
+ */
+@Log4j2
+public class LoadGenerator {
+    private final ConfigurationManager configManager;
+    private final LoadProfile profile;
+    private final BrowserType browserType;
+    
+    /**
+     * Constructor for load on the configured browser.
+     *
+     * @param configManager ConfigurationManager instance, for the browser and driver settings
+     * @param profile users, duration and pacing of the run
+     */
+    public LoadGenerator(ConfigurationManager configManager, LoadProfile profile) {
+        this(configManager, profile, configManager.getBrowserType());
+    }
+    
+    /**
+     * Constructor for load on a given browser.
+     *
+     * @param configManager ConfigurationManager instance, for the driver settings
+     * @param profile users, duration and pacing of the run
+     * @param browserType browser the users run
+     */
+    public LoadGenerator(ConfigurationManager configManager, LoadProfile profile, BrowserType browserType) {
+        this.configManager = configManager;
+        this.profile = profile;
+        this.browserType = browserType;
+    }
+    
+    /**
+     * Run the journey under load and wait for every user to finish.
+     *
+     * @param journey journey each user repeats
+     * @return statistics of the run
+     */
+    public LoadStats run(Journey journey) {
+        DriverManager driverManager = new DriverManager(configManager);
+        Set<BrowserType> unresolved = driverManager.preflight(EnumSet.of(browserType));
+        if (!unresolved.isEmpty()) {
+            throw new IllegalStateException("Driver preflight could not resolve a driver for " + unresolved);
+        }
+        
+        log.info("Starting load run: {} users, duration {}, {} iterations per user, ramp-up {}, think time {}",
+                profile.getUsers(), profile.getDuration(), profile.getIterations(),
+                profile.getRampUp(), profile.getThinkTime());
+        LoadStats stats = new LoadStats();
+        long deadline = System.nanoTime() + profile.getDuration().toNanos();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService users = Executors.newFixedThreadPool(profile.getUsers(),
+                runnable -> new Thread(runnable, "load-user-" + threadNumber.incrementAndGet()));
+        
+        List<Future<?>> running = new ArrayList<>();
+        for (int user = 0; user < profile.getUsers(); user++) {
+            int index = user;
+            running.add(users.submit(() -> runUser(index, journey, driverManager, stats, deadline)));
+        }
+        users.shutdown();
+        for (Future<?> user : running) {
+            try {
+                user.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                users.shutdownNow();
+                break;
+            } catch (ExecutionException e) {
+                log.error("Virtual user stopped unexpectedly: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+        stats.stop();
+        log.info("Load run finished in {} ms", stats.getElapsed().toMillis());
+        return stats;
+    }
+    
+    /**
+     * Run one virtual user until its journeys are done.
+     *
+     * @param user index of the user, from 0
+     * @param journey journey to repeat
+     * @param driverManager manager of the user's browser session
+     * @param stats statistics of the run
+     * @param deadline {@link System#nanoTime()} after which no journey starts
+     */
+    private void runUser(int user, Journey journey, DriverManager driverManager, LoadStats stats, long deadline) {
+        BrowserProfile.use(new BrowserProfile(browserType, true));
+        PagePerformance.setEnabled(false);
+        try {
+            Thread.sleep(profile.startDelay(user).toMillis());
+            JourneySteps steps = new JourneySteps(stats, profile.getThinkTime());
+            for (int completed = 0; profile.hasNext(completed, deadline) && !Thread.currentThread().isInterrupted(); completed++) {
+                WebDriver driver = driverManager.getDriver();
+                long start = System.nanoTime();
+                try {
+                    journey.run(driver, steps);
+                    stats.record(LoadStats.JOURNEY, System.nanoTime() - start);
+                } catch (RuntimeException e) {
+                    stats.recordError(LoadStats.JOURNEY);
+                    log.warn("Journey of user {} failed, starting a new session: {}", user, e.getMessage());
+                    driverManager.quitDriver();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            driverManager.quitDriver();
+            PagePerformance.setEnabled(true);
+            BrowserProfile.clear();
+        }
+    }
+}
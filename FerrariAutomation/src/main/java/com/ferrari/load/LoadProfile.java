@@ -0,0 +1,62 @@
+package com.ferrari.load;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Shape of a load run: how many virtual users, for how long, and how they pace themselves.
+ */
+@Value
+public class LoadProfile {
+    /**
+     * Number of concurrent virtual users, each with its own headless browser session.
+     */
+    int users;
+    
+    /**
+     * How long users keep starting new journeys, zero to stop after {@link #iterations} only.
+     */
+    Duration duration;
+    
+    /**
+     * Journeys per user, zero to stop after {@link #duration} only. With both zero every user runs once.
+     */
+    int iterations;
+    
+    /**
+     * Time over which the users are started, evenly spread.
+     */
+    Duration rampUp;
+    
+    /**
+     * Pause after every step, not counted in the step latency.
+     */
+    Duration thinkTime;
+    
+    /**
+     * Get the delay before a user starts.
+     *
+     * @param user index of the user, from 0
+     * @return start delay
+     */
+    public Duration startDelay(int user) {
+        return users <= 1 ? Duration.ZERO : rampUp.multipliedBy(user).dividedBy(users);
+    }
+    
+    /**
+     * Check whether a user should start another journey.
+     *
+     * @param completed journeys the user has run
+     * @param deadlineNanos {@link System#nanoTime()} at which the run ends, if it has a duration
+     * @return true if another journey should run
+     */
+    public boolean hasNext(int completed, long deadlineNanos) {
+        if (duration.isZero() && iterations <= 0) {
+            return completed == 0;
+        }
+        boolean withinIterations = iterations <= 0 || completed < iterations;
+        boolean withinDuration = duration.isZero() || System.nanoTime() - deadlineNanos < 0;
+        return withinIterations && withinDuration;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ferrari.load;
+
+import com.ferrari.config.ConfigurationManager;
+import com.ferrari.config.DriverManager;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Command line entry point of load runs: drives the search journey with the {@code load.*} settings
+ * and writes the throughput/latency report. The site under load is never implied: it is either
+ * {@code load.baseUrl} or, with {@code load.standIn=true}, a local stand-in site.
+ * Usage: {@code mvn compile exec:java -Dexec.mainClass=com.ferrari.load.LoadRunner -Dload.baseUrl=<url> -Dload.users=8}
+ */
+@Log4j2
+public class LoadRunner {
+    private LoadRunner() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Run the load test.
+     *
+     * @param args unused, settings are read from the configuration and system properties
+     * @throws IOException if the stand-in site cannot be started
+     * @throws IllegalStateException if neither {@code load.baseUrl} nor {@code load.standIn} is set
+     */
+    public static void main(String[] args) throws IOException {
+        ConfigurationManager configManager = ConfigurationManager.getInstance();
+        if (!configManager.isLoadStandIn() && configManager.getLoadBaseUrl().isEmpty()) {
+            throw new IllegalStateException(
+                    "Set load.baseUrl to the staging site to put under load, or load.standIn=true to use a local stand-in site");
+        }
+        LoadProfile profile = configManager.getLoadProfile();
+        StandInSite site = configManager.isLoadStandIn() ? new StandInSite() : null;
+        try {
+            String baseUrl = site != null ? site.getBaseUrl() : configManager.getLoadBaseUrl();
+            LoadStats stats = new LoadGenerator(configManager, profile)
+                    .run(new SearchJourney(baseUrl, configManager.getSearchTerm()));
+            log.info("Load report:{}{}", System.lineSeparator(), stats.report(profile.getUsers()));
+            stats.writeReport(Paths.get(configManager.getLoadReport()), profile.getUsers());
+        } finally {
+            if (site != null) {
+                site.close();
+            }
+            DriverManager.quitAllDrivers();
+        }
+    }
+}
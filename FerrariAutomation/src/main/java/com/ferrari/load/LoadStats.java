@@ -0,0 +1,172 @@
+package com.ferrari.load;
+
+import com.ferrari.metrics.LatencyHistogram;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies and errors of every journey step during a load run, with the resulting
+ * throughput/latency report. Steps are reported in the order they first ran.
+ */
+@Log4j2
+public class LoadStats {
+    /**
+     * Name under which whole journeys are recorded.
+     */
+    public static final String JOURNEY = "journey";
+    
+    private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> errors = new LinkedHashMap<>();
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+    
+    /**
+     * Record a successful step.
+     *
+     * @param step step name
+     * @param nanos step latency in nanoseconds
+     */
+    public void record(String step, long nanos) {
+        histogram(step).record(nanos);
+    }
+    
+    /**
+     * Record a failed step.
+     *
+     * @param step step name
+     */
+    public void recordError(String step) {
+        histogram(step);
+        synchronized (errors) {
+            errors.computeIfAbsent(step, key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+    
+    /**
+     * Mark the end of the run, which fixes the elapsed time throughputs are computed over.
+     */
+    public void stop() {
+        endNanos = System.nanoTime();
+    }
+    
+    /**
+     * Get the wall time of the run.
+     *
+     * @return time from the creation of the statistics to {@link #stop()}, or to now if still running
+     */
+    public Duration getElapsed() {
+        return Duration.ofNanos((endNanos != 0 ? endNanos : System.nanoTime()) - startNanos);
+    }
+    
+    /**
+     * Get the number of successful runs of a step.
+     *
+     * @param step step name
+     * @return count
+     */
+    public long getCount(String step) {
+        synchronized (latencies) {
+            LatencyHistogram histogram = latencies.get(step);
+            return histogram == null ? 0 : histogram.getCount();
+        }
+    }
+    
+    /**
+     * Get the number of failed runs of a step.
+     *
+     * @param step step name
+     * @return error count
+     */
+    public long getErrors(String step) {
+        synchronized (errors) {
+            AtomicLong count = errors.get(step);
+            return count == null ? 0 : count.get();
+        }
+    }
+    
+    /**
+     * Build the report: per step, successful runs, errors, throughput and latency percentiles.
+     *
+     * @param users number of virtual users
+     * @return report text
+     */
+    public String report(int users) {
+        double seconds = Math.max(0.001, getElapsed().toMillis() / 1_000.0);
+        List<String> steps;
+        synchronized (latencies) {
+            steps = new ArrayList<>(latencies.keySet());
+        }
+        // The journey total goes last, after its steps
+        if (steps.remove(JOURNEY)) {
+            steps.add(JOURNEY);
+        }
+        
+        StringWriter text = new StringWriter();
+        PrintWriter writer = new PrintWriter(text);
+        writer.printf("Load run: %d users for %.1f s, %d journeys completed, %d failed%n",
+                users, seconds, getCount(JOURNEY), getErrors(JOURNEY));
+        writer.printf("%-20s %8s %8s %10s %10s %10s %10s %10s%n",
+                "Step", "Count", "Errors", "Per sec", "p50 ms", "p90 ms", "p99 ms", "Max ms");
+        for (String step : steps) {
+            LatencyHistogram histogram = histogram(step);
+            writer.printf("%-20s %8d %8d %10.2f %10.1f %10.1f %10.1f %10.1f%n",
+                    step, histogram.getCount(), getErrors(step), histogram.getCount() / seconds,
+                    millis(histogram.percentileMicros(50)),
+                    millis(histogram.percentileMicros(90)),
+                    millis(histogram.percentileMicros(99)),
+                    millis(histogram.getMaxMicros()));
+        }
+        writer.flush();
+        return text.toString();
+    }
+    
+    /**
+     * Write the report to a file.
+     *
+     * @param reportFile report file
+     * @param users number of virtual users
+     */
+    public void writeReport(Path reportFile, int users) {
+        try {
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+            Files.writeString(reportFile, report(users), StandardCharsets.UTF_8);
+            log.info("Load report written to {}", reportFile);
+        } catch (IOException e) {
+            log.error("Failed to write load report: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Get the histogram of a step, creating it on first use.
+     *
+     * @param step step name
+     * @return LatencyHistogram instance
+     */
+    private LatencyHistogram histogram(String step) {
+        synchronized (latencies) {
+            return latencies.computeIfAbsent(step, key -> new LatencyHistogram());
+        }
+    }
+    
+    /**
+     * Convert microseconds to milliseconds.
+     *
+     * @param micros value in microseconds
+     * @return value in milliseconds
+     */
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ferrari.load;
+
+import com.ferrari.pages.FerrariSF90Page;
+import com.ferrari.pages.GoogleHomePage;
+import com.ferrari.pages.GoogleSearchResultsPage;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * The search journey of the feature files, built from the page objects:
+ * open the search page, search, open the first result and check the SF90 page.
+ */
+public class SearchJourney implements Journey {
+    private final String baseUrl;
+    private final String searchTerm;
+    
+    /**
+     * Constructor.
+     *
+     * @param baseUrl URL of the search page
+     * @param searchTerm text to search for
+     */
+    public SearchJourney(String baseUrl, String searchTerm) {
+        this.baseUrl = baseUrl;
+        this.searchTerm = searchTerm;
+    }
+    
+    @Override
+    public void run(WebDriver driver, JourneySteps steps) {
+        GoogleHomePage homePage = steps.step("openHome", () -> new GoogleHomePage(driver).goTo(baseUrl));
+        GoogleSearchResultsPage resultsPage = steps.step("search", () -> homePage.searchFor(searchTerm));
+        FerrariSF90Page sf90Page = steps.step("openFirstResult", resultsPage::clickFirstResult);
+        steps.step("verifySF90", () -> {
+            if (!sf90Page.isLoaded() || !sf90Page.getCurrentUrl().contains("sf90")) {
+                throw new IllegalStateException("Journey did not reach the SF90 page: " + sf90Page.getCurrentUrl());
+            }
+        });
+    }
+}
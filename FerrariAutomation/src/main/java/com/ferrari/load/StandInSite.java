@@ -0,0 +1,94 @@
+package com.ferrari.load;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local HTTP server standing in for Google and ferrari.com.
+ * Serves just enough markup for GoogleHomePage, GoogleSearchResultsPage and
+ * FerrariSF90Page to run the search journey without network access, for the
+ * throughput benchmark and for load runs ({@link LoadRunner} with {@code load.standIn=true}).
+ */
+public class StandInSite implements AutoCloseable {
+    public static final String SF90_PATH = "/en-EN/auto/sf90-stradale";
+    
+    private static final String HOME_PAGE = "<!DOCTYPE html><html><head><title>Search</title></head><body>"
+            + "<form action=\"/search\" method=\"get\">"
+            + "<input type=\"text\" name=\"q\" autofocus>"
+            + "<input type=\"submit\" name=\"btnK\" value=\"Search\">"
+            + "</form></body></html>";
+    private static final String RESULTS_PAGE = "<!DOCTYPE html><html><head><title>Results</title></head><body>"
+            + "<div id=\"search\">"
+            + "<a href=\"" + SF90_PATH + "\"><h3>SF90 Stradale - Ferrari.com</h3></a>"
+            + "<a href=\"/wiki/Ferrari_SF90_Stradale\"><h3>Ferrari SF90 Stradale - Wikipedia</h3></a>"
+            + "<a href=\"/reviews/sf90\"><h3>SF90 Stradale review</h3></a>"
+            + "</div></body></html>";
+    private static final String SF90_PAGE = "<!DOCTYPE html><html><head><title>SF90 Stradale</title></head><body>"
+            + "<section class=\"model_banner\"><h1 class=\"model-name\">SF90 Stradale</h1></section>"
+            + "</body></html>";
+    
+    private final HttpServer server;
+    private final ExecutorService executor;
+    
+    /**
+     * Start the site on a free local port.
+     *
+     * @throws IOException if the server cannot be started
+     */
+    public StandInSite() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> respond(exchange, HOME_PAGE));
+        server.createContext("/search", exchange -> respond(exchange, RESULTS_PAGE));
+        server.createContext(SF90_PATH, exchange -> respond(exchange, SF90_PAGE));
+        // Concurrent sessions are served in parallel, as a real site would
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stand-in-site");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+    
+    /**
+     * Get the base URL of the site, which serves the search home page.
+     *
+     * @return base URL, e.g. {@code http://127.0.0.1:54321/}
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+    
+    /**
+     * Stop the server.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+    
+    /**
+     * Send an HTML page.
+     *
+     * @param exchange HTTP exchange
+     * @param html page markup
+     * @throws IOException if the response cannot be written
+     */
+    private static void respond(HttpExchange exchange, String html) throws IOException {
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+}
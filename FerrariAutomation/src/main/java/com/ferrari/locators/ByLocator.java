@@ -0,0 +1,66 @@
+package com.ferrari.locators;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.List;
+
+/**
+ * Element locator for a {@link By} known at compile time, used by generated page object wiring.
+ */
+public class ByLocator implements ElementLocator {
+    private final SearchContext searchContext;
+    private final By by;
+    
+    /**
+     * Constructor with search context and locator.
+     *
+     * @param searchContext context to search in, usually the WebDriver
+     * @param by element locator
+     */
+    public ByLocator(SearchContext searchContext, By by) {
+        this.searchContext = searchContext;
+        this.by = by;
+    }
+    
+    /**
+     * Get the locator.
+     *
+     * @return element locator
+     */
+    public By getBy() {
+        return by;
+    }
+    
+    /**
+     * Find the element.
+     *
+     * @return WebElement
+     */
+    @Override
+    public WebElement findElement() {
+        return searchContext.findElement(by);
+    }
+    
+    /**
+     * Find the elements.
+     *
+     * @return list of WebElements
+     */
+    @Override
+    public List<WebElement> findElements() {
+        return searchContext.findElements(by);
+    }
+    
+    /**
+     * Describe the locator.
+     *
+     * @return locator description, e.g. {@code By.cssSelector: h3}
+     */
+    @Override
+    public String toString() {
+        return by.toString();
+    }
+}
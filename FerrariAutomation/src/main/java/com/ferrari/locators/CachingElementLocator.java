@@ -0,0 +1,90 @@
+package com.ferrari.locators;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.List;
+
+/**
+ * Element locator that reuses the element it found until the session's {@link LocatorCache}
+ * generation changes or {@link #invalidate()} is called after a stale element.
+ * Missing elements are never cached, so waits keep looking them up. Lists are never cached either:
+ * their membership can change without any element going stale, e.g. when results are loaded in place.
+ */
+public class CachingElementLocator implements ElementLocator {
+    private final ElementLocator delegate;
+    private final WebDriver driver;
+    
+    private volatile WebElement element;
+    private volatile long elementGeneration;
+    
+    /**
+     * Constructor with the locator doing the actual lookups.
+     *
+     * @param delegate locator that queries the browser
+     * @param driver WebDriver whose navigations invalidate the cache
+     */
+    public CachingElementLocator(ElementLocator delegate, WebDriver driver) {
+        this.delegate = delegate;
+        this.driver = driver;
+    }
+    
+    /**
+     * Find the element, from the cache when it is still valid.
+     *
+     * @return WebElement
+     */
+    @Override
+    public WebElement findElement() {
+        long generation = LocatorCache.generation(driver);
+        WebElement cached = element;
+        if (cached != null && elementGeneration == generation) {
+            LocatorCache.recordHit();
+            return cached;
+        }
+        
+        LocatorCache.recordMiss();
+        WebElement found = delegate.findElement();
+        elementGeneration = generation;
+        element = found;
+        return found;
+    }
+    
+    /**
+     * Find the elements, always in the browser.
+     *
+     * @return list of WebElements
+     */
+    @Override
+    public List<WebElement> findElements() {
+        return delegate.findElements();
+    }
+    
+    /**
+     * Get the locator the lookups are made with.
+     *
+     * @return By of the locator doing the lookups, or null if it is not a {@link ByLocator}
+     */
+    public By getBy() {
+        return delegate instanceof ByLocator ? ((ByLocator) delegate).getBy() : null;
+    }
+    
+    /**
+     * Drop the cached element of this locator.
+     */
+    public void invalidate() {
+        element = null;
+    }
+    
+    /**
+     * Describe the locator the same way as the locator doing the lookups.
+     *
+     * @return locator description
+     */
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.ferrari.locators;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.Field;
+
+/**
+ * Locator factory creating {@link CachingElementLocator}s for the fields of a page object.
+ */
+public class CachingElementLocatorFactory implements ElementLocatorFactory {
+    private final WebDriver driver;
+    
+    /**
+     * Constructor with WebDriver.
+     *
+     * @param driver WebDriver used for lookups and cache invalidation
+     */
+    public CachingElementLocatorFactory(WebDriver driver) {
+        this.driver = driver;
+        LocatorCache.scheduleSummary();
+    }
+    
+    /**
+     * Create the locator of a field.
+     *
+     * @param field page object field annotated with a locator
+     * @return ElementLocator instance
+     */
+    @Override
+    public ElementLocator createLocator(Field field) {
+        return new CachingElementLocator(new ByLocator(driver, new Annotations(field).buildBy()), driver);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ferrari.locators;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.List;
+
+/**
+ * Field decorator for page objects whose elements are looked up through {@link CachingElementLocator}s.
+ * Fields are assigned {@link LazyElement}s and {@link LazyElementList}s, which look a stale cached
+ * element up once more and invalidate the session's cache on calls that may load another page.
+ */
+public class CachingFieldDecorator extends DefaultFieldDecorator {
+    private final WebDriver driver;
+    
+    /**
+     * Constructor with WebDriver.
+     *
+     * @param driver WebDriver the page object uses
+     */
+    public CachingFieldDecorator(WebDriver driver) {
+        super(new CachingElementLocatorFactory(driver));
+        this.driver = driver;
+    }
+    
+    /**
+     * Create the element of a single element field.
+     *
+     * @param loader class loader, unused
+     * @param locator locator of the field
+     * @return lazily resolved WebElement
+     */
+    @Override
+    protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+        CachingElementLocator cachingLocator = (CachingElementLocator) locator;
+        return new LazyElement(locator, driver, cachingLocator.getBy(), "Proxy element for: " + locator,
+                cachingLocator::invalidate);
+    }
+    
+    /**
+     * Create the list of a list field.
+     *
+     * @param loader class loader, unused
+     * @param locator locator of the field
+     * @return lazily resolved list of WebElements
+     */
+    @Override
+    protected List<WebElement> proxyForListLocator(ClassLoader loader, ElementLocator locator) {
+        return new LazyElementList(locator, driver);
+    }
+}
@@ -0,0 +1,61 @@
+package com.ferrari.locators;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.List;
+
+/**
+ * Creates the lazily resolved elements assigned by generated {@link PageElements} wiring.
+ */
+public class ElementLookup {
+    private final WebDriver driver;
+    private final boolean cached;
+    
+    /**
+     * Constructor with WebDriver and cache setting.
+     *
+     * @param driver WebDriver used for lookups
+     * @param cached whether lookups go through a {@link CachingElementLocator}
+     */
+    public ElementLookup(WebDriver driver, boolean cached) {
+        this.driver = driver;
+        this.cached = cached;
+        if (cached) {
+            LocatorCache.scheduleSummary();
+        }
+    }
+    
+    /**
+     * Create an element found by a locator.
+     *
+     * @param by element locator
+     * @return lazily resolved WebElement
+     */
+    public WebElement element(By by) {
+        return new LazyElement(locator(by), driver, by);
+    }
+    
+    /**
+     * Create an element list found by a locator.
+     *
+     * @param by elements locator
+     * @return lazily resolved list of WebElements
+     */
+    public List<WebElement> elements(By by) {
+        return new LazyElementList(locator(by), driver);
+    }
+    
+    /**
+     * Create the locator for a By, caching its results when enabled.
+     *
+     * @param by element locator
+     * @return ElementLocator instance
+     */
+    private ElementLocator locator(By by) {
+        ElementLocator locator = new ByLocator(driver, by);
+        return cached ? new CachingElementLocator(locator, driver) : locator;
+    }
+}
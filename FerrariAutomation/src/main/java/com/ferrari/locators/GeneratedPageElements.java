@@ -0,0 +1,53 @@
+package com.ferrari.locators;
+
+/**
+ * Utility class finding the {@link PageElements} generated for page object classes.
+ * The generated class of {@code Page} is {@code Page_Elements} in the same package; it is looked up
+ * once per class, so creating a page object involves no reflection.
+ */
+public class GeneratedPageElements {
+    /**
+     * Suffix of generated wiring classes.
+     */
+    public static final String SUFFIX = "_Elements";
+    
+    private static final ClassValue<PageElements<Object>> WIRING = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected PageElements<Object> computeValue(Class<?> type) {
+            try {
+                Class<?> generated = Class.forName(type.getName() + SUFFIX, true, type.getClassLoader());
+                return (PageElements<Object>) generated.getDeclaredConstructor().newInstance();
+            } catch (ClassNotFoundException e) {
+                return null;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create generated wiring for " + type.getName(), e);
+            }
+        }
+    };
+    
+    private GeneratedPageElements() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Wire the {@code @FindBy} fields of a page object and of its superclasses with generated code.
+     *
+     * @param page page object
+     * @param lookup creates the elements
+     * @param stopClass first superclass not to wire
+     * @return true if generated wiring was found for the page's class
+     */
+    public static boolean initElements(Object page, ElementLookup lookup, Class<?> stopClass) {
+        if (WIRING.get(page.getClass()) == null) {
+            return false;
+        }
+        for (Class<?> type = page.getClass(); type != null && type != stopClass; type = type.getSuperclass()) {
+            PageElements<Object> wiring = WIRING.get(type);
+            if (wiring != null) {
+                wiring.initElements(page, lookup);
+            }
+        }
+        return true;
+    }
+}
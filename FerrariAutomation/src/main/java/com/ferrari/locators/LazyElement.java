@@ -0,0 +1,316 @@
+package com.ferrari.locators;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Coordinates;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page object element that is looked up through its locator on every call.
+ * With a {@link CachingElementLocator} the lookup is usually answered from the cache; a cached
+ * element that turned out to be stale is looked up again and the call retried once. Clicks,
+ * submits and Enter key presses invalidate the session's cache since they may load another page.
+ */
+public class LazyElement implements WebElement, WrapsElement, Locatable {
+    private final ElementLocator locator;
+    private final WebDriver driver;
+    private final By by;
+    private final String description;
+    private final Runnable invalidate;
+    
+    /**
+     * Constructor with the locator of the element.
+     *
+     * @param locator locator resolving the element
+     * @param driver WebDriver whose cache is invalidated by navigating calls
+     * @param by locator the element is declared with, or null if it has none of its own
+     * @param description description returned by toString
+     * @param invalidate drops the element remembered by the locator, or null if it remembers nothing
+     */
+    LazyElement(ElementLocator locator, WebDriver driver, By by, String description, Runnable invalidate) {
+        this.locator = locator;
+        this.driver = driver;
+        this.by = by;
+        this.description = description;
+        this.invalidate = invalidate;
+    }
+    
+    /**
+     * Constructor describing the element by its locator.
+     *
+     * @param locator locator resolving the element
+     * @param driver WebDriver whose cache is invalidated by navigating calls
+     * @param by locator the element is declared with
+     */
+    public LazyElement(ElementLocator locator, WebDriver driver, By by) {
+        this(locator, driver, by, "Lazy element for: " + locator,
+                locator instanceof CachingElementLocator ? ((CachingElementLocator) locator)::invalidate : null);
+    }
+    
+    /**
+     * Get the locator the element is declared with.
+     *
+     * @return By of the page object field, or null for an element of a list
+     */
+    public By getBy() {
+        return by;
+    }
+    
+    /**
+     * Click the element. Invalidates the session's cache since a click may load another page.
+     */
+    @Override
+    public void click() {
+        call(element -> {
+            element.click();
+            return null;
+        });
+        LocatorCache.invalidate(driver);
+    }
+    
+    /**
+     * Submit the element's form. Invalidates the session's cache since it loads another page.
+     */
+    @Override
+    public void submit() {
+        call(element -> {
+            element.submit();
+            return null;
+        });
+        LocatorCache.invalidate(driver);
+    }
+    
+    /**
+     * Type into the element. An Enter key press invalidates the session's cache since it may submit a form.
+     */
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        call(element -> {
+            element.sendKeys(keysToSend);
+            return null;
+        });
+        for (CharSequence keys : keysToSend) {
+            String text = keys.toString();
+            if (text.contains(Keys.ENTER) || text.contains(Keys.RETURN)) {
+                LocatorCache.invalidate(driver);
+                return;
+            }
+        }
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        call(element -> {
+            element.clear();
+            return null;
+        });
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getTagName() {
+        return call(WebElement::getTagName);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getDomProperty(String name) {
+        return call(element -> element.getDomProperty(name));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getDomAttribute(String name) {
+        return call(element -> element.getDomAttribute(name));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getAttribute(String name) {
+        return call(element -> element.getAttribute(name));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getAriaRole() {
+        return call(WebElement::getAriaRole);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getAccessibleName() {
+        return call(WebElement::getAccessibleName);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSelected() {
+        return call(WebElement::isSelected);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isEnabled() {
+        return call(WebElement::isEnabled);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getText() {
+        return call(WebElement::getText);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<WebElement> findElements(By by) {
+        return call(element -> element.findElements(by));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public WebElement findElement(By by) {
+        return call(element -> element.findElement(by));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SearchContext getShadowRoot() {
+        return call(WebElement::getShadowRoot);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isDisplayed() {
+        return call(WebElement::isDisplayed);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Point getLocation() {
+        return call(WebElement::getLocation);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Dimension getSize() {
+        return call(WebElement::getSize);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Rectangle getRect() {
+        return call(WebElement::getRect);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getCssValue(String propertyName) {
+        return call(element -> element.getCssValue(propertyName));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return call(element -> element.getScreenshotAs(target));
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Coordinates getCoordinates() {
+        return call(element -> ((Locatable) element).getCoordinates());
+    }
+    
+    /**
+     * Resolve the element.
+     *
+     * @return WebElement found by the locator
+     */
+    @Override
+    public WebElement getWrappedElement() {
+        return locator.findElement();
+    }
+    
+    /**
+     * Describe the element by its locator, so wait names and logs show what was looked up.
+     *
+     * @return element description
+     */
+    @Override
+    public String toString() {
+        return description;
+    }
+    
+    /**
+     * Resolve the element and apply an action to it, looking it up again once if it is stale.
+     *
+     * @param action action to apply
+     * @param <T> result type
+     * @return action result
+     */
+    private <T> T call(Function<WebElement, T> action) {
+        try {
+            return action.apply(locator.findElement());
+        } catch (StaleElementReferenceException e) {
+            if (invalidate == null) {
+                throw e;
+            }
+            LocatorCache.recordStaleRetry();
+            invalidate.run();
+            return action.apply(locator.findElement());
+        }
+    }
+}
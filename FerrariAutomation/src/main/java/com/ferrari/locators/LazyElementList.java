@@ -0,0 +1,160 @@
+package com.ferrari.locators;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+
+/**
+ * Page object element list that is looked up through its locator on every use, never from the cache.
+ * Bulk operations (iteration, copying, streaming) resolve the list once. Each element keeps the
+ * reference it was found with and is replaced by the element at the same index if it turns out stale.
+ */
+public class LazyElementList extends AbstractList<WebElement> implements RandomAccess {
+    private final ElementLocator locator;
+    private final WebDriver driver;
+    
+    /**
+     * Constructor with the locator of the elements.
+     *
+     * @param locator locator resolving the elements
+     * @param driver WebDriver whose cache is invalidated by navigating calls
+     */
+    public LazyElementList(ElementLocator locator, WebDriver driver) {
+        this.locator = locator;
+        this.driver = driver;
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public WebElement get(int index) {
+        return resolve().get(index);
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return locator.findElements().size();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<WebElement> iterator() {
+        return resolve().iterator();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Spliterator<WebElement> spliterator() {
+        return resolve().spliterator();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object[] toArray() {
+        return resolve().toArray();
+    }
+    
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <T> T[] toArray(T[] array) {
+        return resolve().toArray(array);
+    }
+    
+    /**
+     * Describe the list by its locator.
+     *
+     * @return list description
+     */
+    @Override
+    public String toString() {
+        return "Lazy list for: " + locator;
+    }
+    
+    /**
+     * Look the elements up and wrap them so each can recover from a stale reference.
+     *
+     * @return elements currently matching the locator
+     */
+    private List<WebElement> resolve() {
+        List<WebElement> found = locator.findElements();
+        List<WebElement> elements = new ArrayList<>(found.size());
+        for (int i = 0; i < found.size(); i++) {
+            IndexedLocator indexed = new IndexedLocator(i, found.get(i));
+            elements.add(new LazyElement(indexed, driver, null, found.get(i).toString(), indexed::invalidate));
+        }
+        return elements;
+    }
+    
+    /**
+     * Locator of one element of the list, remembering the reference it was found with.
+     */
+    private class IndexedLocator implements ElementLocator {
+        private final int index;
+        private WebElement element;
+        
+        /**
+         * Constructor with the position and the element found there.
+         *
+         * @param index position in the list
+         * @param element element found at that position
+         */
+        IndexedLocator(int index, WebElement element) {
+            this.index = index;
+            this.element = element;
+        }
+        
+        /**
+         * Get the element, looking the list up again after it was invalidated.
+         *
+         * @return WebElement at the index
+         */
+        @Override
+        public WebElement findElement() {
+            if (element == null) {
+                List<WebElement> refreshed = locator.findElements();
+                if (index >= refreshed.size()) {
+                    throw new NoSuchElementException("Element " + index + " of " + locator + " is gone");
+                }
+                element = refreshed.get(index);
+            }
+            return element;
+        }
+        
+        /**
+         * Get the element as a single-element list.
+         *
+         * @return list with the element at the index
+         */
+        @Override
+        public List<WebElement> findElements() {
+            return List.of(findElement());
+        }
+        
+        /**
+         * Drop the remembered element, so the list is looked up again.
+         */
+        void invalidate() {
+            element = null;
+        }
+    }
+}
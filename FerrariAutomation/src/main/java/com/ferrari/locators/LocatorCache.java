@@ -0,0 +1,164 @@
+package com.ferrari.locators;
+
+import com.ferrari.waits.NavigationEvents;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks when cached element references of a session become invalid, and counts cache hits and misses.
+ * Each session has a generation number; navigating bumps it, which invalidates every element
+ * cached by {@link CachingElementLocator} for that session at once. Besides explicit invalidation by
+ * page objects, every navigation the browser commits bumps it: sessions reporting
+ * {@link NavigationEvents} bump it when the event arrives, and for other sessions the current URL is
+ * compared with the one the generation started on whenever the generation is read.
+ */
+@Log4j2
+public class LocatorCache {
+    private static final Map<WebDriver, Session> SESSIONS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong STALE_RETRIES = new AtomicLong();
+    private static final AtomicBoolean SUMMARY_SCHEDULED = new AtomicBoolean();
+    
+    /**
+     * Generation of a session and how navigations are detected in it.
+     */
+    private static class Session {
+        private final AtomicLong generation = new AtomicLong();
+        private final boolean navigationEvents;
+        private volatile String url;
+        
+        /**
+         * Constructor subscribing to the navigation events of the session if it reports them.
+         *
+         * @param driver WebDriver of the session
+         */
+        Session(WebDriver driver) {
+            this.navigationEvents = NavigationEvents.of(driver)
+                    .map(events -> {
+                        events.addListener(committed -> generation.incrementAndGet());
+                        return true;
+                    })
+                    .orElse(false);
+        }
+    }
+    
+    private LocatorCache() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Get the current generation of a session.
+     * For sessions without navigation events this reads the current URL, and a changed URL starts a new generation.
+     *
+     * @param driver WebDriver of the session
+     * @return generation number
+     */
+    public static long generation(WebDriver driver) {
+        Session session = session(driver);
+        if (!session.navigationEvents) {
+            String url = driver.getCurrentUrl();
+            if (!Objects.equals(url, session.url)) {
+                session.url = url;
+                session.generation.incrementAndGet();
+            }
+        }
+        return session.generation.get();
+    }
+    
+    /**
+     * Invalidate every element cached for a session, e.g. before a navigation.
+     *
+     * @param driver WebDriver of the session
+     */
+    public static void invalidate(WebDriver driver) {
+        session(driver).generation.incrementAndGet();
+    }
+    
+    /**
+     * Record a lookup answered from the cache.
+     */
+    static void recordHit() {
+        HITS.incrementAndGet();
+    }
+    
+    /**
+     * Record a lookup that went to the browser.
+     */
+    static void recordMiss() {
+        MISSES.incrementAndGet();
+    }
+    
+    /**
+     * Record a cached element that turned out to be stale and was looked up again.
+     */
+    static void recordStaleRetry() {
+        STALE_RETRIES.incrementAndGet();
+    }
+    
+    /**
+     * Get the number of lookups answered from the cache.
+     *
+     * @return cache hits
+     */
+    public static long getHits() {
+        return HITS.get();
+    }
+    
+    /**
+     * Get the number of lookups that went to the browser.
+     *
+     * @return cache misses
+     */
+    public static long getMisses() {
+        return MISSES.get();
+    }
+    
+    /**
+     * Get the number of stale cached elements that were looked up again.
+     *
+     * @return stale retries
+     */
+    public static long getStaleRetries() {
+        return STALE_RETRIES.get();
+    }
+    
+    /**
+     * Log the hit and miss counts when the JVM exits. Only the first call has an effect.
+     */
+    static void scheduleSummary() {
+        if (SUMMARY_SCHEDULED.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(LocatorCache::logSummary, "locator-cache-summary"));
+        }
+    }
+    
+    /**
+     * Log the hit and miss counts.
+     */
+    public static void logSummary() {
+        long hits = HITS.get();
+        long lookups = hits + MISSES.get();
+        if (lookups == 0) {
+            return;
+        }
+        log.info("Element lookups: {} cache hits, {} misses ({}% hit rate), {} stale retries",
+                hits, MISSES.get(), hits * 100 / lookups, STALE_RETRIES.get());
+    }
+    
+    /**
+     * Get the state of a session, creating it on first use.
+     *
+     * @param driver WebDriver of the session
+     * @return session state
+     */
+    private static Session session(WebDriver driver) {
+        return SESSIONS.computeIfAbsent(driver, Session::new);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ferrari.locators;
+
+/**
+ * Element wiring of a page object, generated at build time by
+ * {@code com.ferrari.processor.PageObjectProcessor} for every {@code BasePage} subclass with
+ * {@code @FindBy} fields.
+ *
+ * @param <P> page object type
+ */
+public interface PageElements<P> {
+    /**
+     * Assign a lazily resolved element or element list to every {@code @FindBy} field of the page.
+     *
+     * @param page page object to wire
+     * @param lookup creates the elements
+     */
+    void initElements(P page, ElementLookup lookup);
+}
@@ -0,0 +1,95 @@
+package com.ferrari.metrics;
+
+import com.ferrari.trace.TraceEventType;
+import com.ferrari.trace.TraceRecorder;
+import com.ferrari.pages.BasePage;
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+/**
+ * WebDriver listener that times every call made through a decorated driver
+ * and records it in {@link CommandMetrics}, keyed by command and calling page object.
+ */
+public class CommandLatencyListener implements WebDriverListener {
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    
+    /**
+     * Start times of the calls in progress on each thread; calls can nest, e.g. navigate().to().
+     */
+    private final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+    
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        startTimes.get().push(System.nanoTime());
+    }
+    
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        recordCall(target, method);
+    }
+    
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        recordCall(target, method);
+    }
+    
+    /**
+     * Record the latency of the call that just finished.
+     *
+     * @param target object the call was made on
+     * @param method method called
+     */
+    private void recordCall(Object target, Method method) {
+        Long start = startTimes.get().poll();
+        if (start == null) {
+            return;
+        }
+        String command = commandName(target, method);
+        CommandMetrics.record(command, callingPage(), System.nanoTime() - start);
+        TraceRecorder.record(TraceEventType.COMMAND, command, start);
+    }
+    
+    /**
+     * Build the command name, e.g. {@code WebElement.click} or {@code Navigation.to}.
+     *
+     * @param target object the call was made on
+     * @param method method called
+     * @return command name
+     */
+    private static String commandName(Object target, Method method) {
+        String type;
+        if (target instanceof WebElement) {
+            type = "WebElement";
+        } else if (target instanceof WebDriver) {
+            type = "WebDriver";
+        } else if (target instanceof WebDriver.Navigation) {
+            type = "Navigation";
+        } else if (target instanceof Alert) {
+            type = "Alert";
+        } else {
+            type = method.getDeclaringClass().getSimpleName();
+        }
+        return type + "." + method.getName();
+    }
+    
+    /**
+     * Find the page object that issued the call.
+     *
+     * @return simple name of the innermost page object on the stack, or "-" if there is none
+     */
+    private static String callingPage() {
+        Optional<Class<?>> page = STACK_WALKER.walk(frames -> frames
+                .<Class<?>>map(StackWalker.StackFrame::getDeclaringClass)
+                .filter(type -> BasePage.class.isAssignableFrom(type) && type != BasePage.class)
+                .findFirst());
+        return page.map(Class::getSimpleName).orElse("-");
+    }
+}
@@ -0,0 +1,115 @@
+package com.ferrari.metrics;
+
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects per-command WebDriver latencies and writes them as a percentile table.
+ */
+@Log4j2
+public class CommandMetrics {
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final CommandLatencyListener LISTENER = new CommandLatencyListener();
+    private static final AtomicBoolean REPORT_SCHEDULED = new AtomicBoolean();
+    
+    /**
+     * Last driver decorated on each thread, so repeated injections reuse the same decorator.
+     */
+    private static final ThreadLocal<Map.Entry<WebDriver, WebDriver>> DECORATED = new ThreadLocal<>();
+    
+    private CommandMetrics() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Wrap a driver so every call made through it is timed.
+     * The report is written to {@code reportFile} when the JVM exits.
+     *
+     * @param driver WebDriver to decorate
+     * @param reportFile where to write the percentile table, or null to only feed the trace
+     * @return decorated WebDriver
+     */
+    public static WebDriver decorate(WebDriver driver, Path reportFile) {
+        if (reportFile != null && REPORT_SCHEDULED.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> writeReport(reportFile), "command-metrics-writer"));
+        }
+        
+        Map.Entry<WebDriver, WebDriver> last = DECORATED.get();
+        if (last != null && last.getKey() == driver) {
+            return last.getValue();
+        }
+        WebDriver decorated = new EventFiringDecorator<>(LISTENER).decorate(driver);
+        DECORATED.set(new AbstractMap.SimpleImmutableEntry<>(driver, decorated));
+        return decorated;
+    }
+    
+    /**
+     * Record the latency of one command.
+     *
+     * @param command command name
+     * @param page page object that issued the command, or "-"
+     * @param nanos latency in nanoseconds
+     */
+    public static void record(String command, String page, long nanos) {
+        HISTOGRAMS.computeIfAbsent(page + "\t" + command, key -> new LatencyHistogram()).record(nanos);
+    }
+    
+    /**
+     * Write the percentile table, slowest total time first.
+     *
+     * @param reportFile report file
+     */
+    public static void writeReport(Path reportFile) {
+        if (HISTOGRAMS.isEmpty()) {
+            return;
+        }
+        
+        try {
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8))) {
+                writer.printf("%-28s %-36s %8s %10s %10s %10s %10s %12s%n",
+                        "Page", "Command", "Count", "p50 ms", "p90 ms", "p99 ms", "Max ms", "Total ms");
+                HISTOGRAMS.entrySet().stream()
+                        .sorted(Comparator.comparingLong(
+                                (Map.Entry<String, LatencyHistogram> entry) -> entry.getValue().getTotalMicros())
+                                .reversed())
+                        .forEach(entry -> {
+                            String[] key = entry.getKey().split("\t", 2);
+                            LatencyHistogram histogram = entry.getValue();
+                            writer.printf("%-28s %-36s %8d %10.1f %10.1f %10.1f %10.1f %12.1f%n",
+                                    key[0], key[1], histogram.getCount(),
+                                    millis(histogram.percentileMicros(50)),
+                                    millis(histogram.percentileMicros(90)),
+                                    millis(histogram.percentileMicros(99)),
+                                    millis(histogram.getMaxMicros()),
+                                    millis(histogram.getTotalMicros()));
+                        });
+            }
+            log.info("Command latency report written to {}", reportFile);
+        } catch (IOException e) {
+            log.error("Failed to write command latency report: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Convert microseconds to milliseconds.
+     *
+     * @param micros value in microseconds
+     * @return value in milliseconds
+     */
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+}
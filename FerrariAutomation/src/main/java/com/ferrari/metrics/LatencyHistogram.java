@@ -0,0 +1,114 @@
+package com.ferrari.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with microsecond resolution.
+ * Values are counted in log-linear buckets: each power of two is split into 16
+ * sub-buckets, so reported percentiles are within about 6% of the real value.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    
+    /**
+     * Record one latency.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        counts.incrementAndGet(bucketOf(micros));
+        total.incrementAndGet();
+        sum.addAndGet(micros);
+        max.accumulateAndGet(micros, Math::max);
+    }
+    
+    /**
+     * Get the number of recorded latencies.
+     *
+     * @return count
+     */
+    public long getCount() {
+        return total.get();
+    }
+    
+    /**
+     * Get the sum of the recorded latencies.
+     *
+     * @return total in microseconds
+     */
+    public long getTotalMicros() {
+        return sum.get();
+    }
+    
+    /**
+     * Get the largest recorded latency.
+     *
+     * @return maximum in microseconds
+     */
+    public long getMaxMicros() {
+        return max.get();
+    }
+    
+    /**
+     * Get a percentile of the recorded latencies.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return upper bound of the bucket holding the percentile, in microseconds
+     */
+    public long percentileMicros(double percentile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+        
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bucket), max.get());
+            }
+        }
+        return max.get();
+    }
+    
+    /**
+     * Get the bucket of a value.
+     *
+     * @param value value in microseconds
+     * @return bucket index
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+    
+    /**
+     * Get the largest value that falls in a bucket.
+     *
+     * @param bucket bucket index
+     * @return upper bound in microseconds
+     */
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int magnitude = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket % SUB_BUCKETS;
+        long lower = (1L << magnitude) | (subBucket << (magnitude - SUB_BUCKET_BITS));
+        return lower + (1L << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ferrari.network;
+
+import lombok.Value;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * HTTP response as stored in a {@link ResponseArchive}.
+ */
+@Value
+public class ArchivedResponse {
+    /**
+     * Headers that describe the bytes on the wire rather than the decoded body, so they are not kept.
+     */
+    private static final Set<String> TRANSPORT_HEADERS = Set.of(
+            "content-length", "content-encoding", "transfer-encoding", "connection");
+    
+    int status;
+    
+    /**
+     * Headers as {@code name: value} lines, in the order they were received.
+     */
+    List<String> headers;
+    
+    byte[] body;
+    
+    /**
+     * Capture a live response.
+     *
+     * @param response response received from the network
+     * @param body decoded response body
+     * @return ArchivedResponse instance
+     */
+    public static ArchivedResponse from(HttpResponse response, byte[] body) {
+        List<String> headers = new ArrayList<>();
+        response.forEachHeader((name, value) -> {
+            if (!TRANSPORT_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.add(name + ": " + value);
+            }
+        });
+        return new ArchivedResponse(response.getStatus(), Collections.unmodifiableList(headers), body);
+    }
+    
+    /**
+     * Build a response the browser can be answered with.
+     *
+     * @return HttpResponse instance
+     */
+    public HttpResponse toHttpResponse() {
+        HttpResponse response = new HttpResponse().setStatus(status);
+        for (String header : headers) {
+            int colon = header.indexOf(':');
+            response.addHeader(header.substring(0, colon), header.substring(colon + 1).trim());
+        }
+        response.setContent(Contents.bytes(body));
+        return response;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ferrari.network;
+
+import com.ferrari.constants.ResourceType;
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Resources the browser must not download: URL patterns plus whole resource types.
+ */
+@Value
+public class BlockList {
+    /**
+     * Block list that blocks nothing.
+     */
+    public static final BlockList NONE = new BlockList(Set.of(), Set.of());
+    
+    /**
+     * URL patterns using {@code *} as wildcard, e.g. {@code *googletagmanager.com*}.
+     */
+    Set<String> urlPatterns;
+    
+    Set<ResourceType> resourceTypes;
+    
+    /**
+     * Get a copy of this block list that lets the given resource types through.
+     *
+     * @param required resource types a page needs
+     * @return BlockList without those types
+     */
+    public BlockList allowing(ResourceType... required) {
+        if (required.length == 0 || resourceTypes.isEmpty()) {
+            return this;
+        }
+        Set<ResourceType> types = EnumSet.copyOf(resourceTypes);
+        types.removeAll(Arrays.asList(required));
+        return new BlockList(urlPatterns, Set.copyOf(types));
+    }
+    
+    /**
+     * Get every URL pattern to block, including those of the blocked resource types.
+     *
+     * @return URL patterns using {@code *} as wildcard
+     */
+    public Set<String> getAllPatterns() {
+        Set<String> patterns = new LinkedHashSet<>(urlPatterns);
+        for (ResourceType type : resourceTypes) {
+            patterns.addAll(type.getUrlPatterns());
+        }
+        return patterns;
+    }
+    
+    /**
+     * Check whether this block list blocks anything.
+     *
+     * @return true if nothing is blocked
+     */
+    public boolean isEmpty() {
+        return urlPatterns.isEmpty() && resourceTypes.isEmpty();
+    }
+}
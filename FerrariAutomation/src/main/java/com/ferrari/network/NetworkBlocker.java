@@ -0,0 +1,73 @@
+package com.ferrari.network;
+
+import com.ferrari.utils.Drivers;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Utility class that enforces a {@link BlockList} in the browser.
+ * Chromium-based browsers block matching requests over DevTools ({@code Network.setBlockedURLs});
+ * the list is only sent again when it changes, so applying it before every navigation is cheap.
+ */
+@Log4j2
+public class NetworkBlocker {
+    /**
+     * URL patterns currently blocked in each session.
+     */
+    private static final Map<WebDriver, Set<String>> APPLIED = Collections.synchronizedMap(new WeakHashMap<>());
+    
+    private NetworkBlocker() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Check whether a driver can block requests by URL.
+     *
+     * @param driver WebDriver instance, possibly decorated
+     * @return true if the block list can be applied
+     */
+    public static boolean isSupported(WebDriver driver) {
+        return Drivers.unwrap(driver) instanceof ChromiumDriver;
+    }
+    
+    /**
+     * Block the resources of a block list in the session, replacing the previous list.
+     * Does nothing on browsers without DevTools support.
+     *
+     * @param driver WebDriver instance, possibly decorated
+     * @param blockList resources to block
+     */
+    public static void apply(WebDriver driver, BlockList blockList) {
+        WebDriver session = Drivers.unwrap(driver);
+        if (!(session instanceof ChromiumDriver)) {
+            return;
+        }
+        
+        Set<String> patterns = blockList.getAllPatterns();
+        if (patterns.equals(APPLIED.get(session))) {
+            return;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) session).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            if (!APPLIED.containsKey(session)) {
+                devTools.send(new Command<>("Network.enable", Map.of()));
+            }
+            devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", new ArrayList<>(patterns))));
+            APPLIED.put(session, patterns);
+            log.debug("Blocking {} URL patterns", patterns.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not apply network block list: {}", e.getMessage());
+        }
+    }
+}
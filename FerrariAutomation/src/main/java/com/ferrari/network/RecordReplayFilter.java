@@ -0,0 +1,96 @@
+package com.ferrari.network;
+
+import com.ferrari.constants.ArchiveMode;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Network filter that answers browser requests from a {@link ResponseArchive}.
+ * In {@link ArchiveMode#RECORD} mode requests missing from the archive go to the network and their
+ * responses are archived; in {@link ArchiveMode#REPLAY} mode they are answered with a 404 instead.
+ */
+@Log4j2
+public class RecordReplayFilter implements Filter {
+    private final ResponseArchive archive;
+    private final ArchiveMode mode;
+    private final Set<String> ignoredParams;
+    
+    /**
+     * Constructor with archive and mode.
+     *
+     * @param archive archive to answer from and record into
+     * @param mode RECORD or REPLAY
+     * @param ignoredParams query parameters left out of request keys, such as per-request tokens
+     */
+    public RecordReplayFilter(ResponseArchive archive, ArchiveMode mode, Set<String> ignoredParams) {
+        this.archive = archive;
+        this.mode = mode;
+        this.ignoredParams = ignoredParams;
+    }
+    
+    /**
+     * Wrap the handler that sends requests to the network.
+     *
+     * @param next handler that fetches from the network
+     * @return handler answering from the archive
+     */
+    @Override
+    public HttpHandler apply(HttpHandler next) {
+        return request -> {
+            String key = requestKey(request.getMethod().toString(), request.getUri());
+            ArchivedResponse archived = archive.find(key).orElse(null);
+            if (archived != null) {
+                return archived.toHttpResponse();
+            }
+            if (mode == ArchiveMode.REPLAY) {
+                log.debug("No archived response for {}", key);
+                return new HttpResponse().setStatus(404);
+            }
+            
+            HttpResponse response = next.execute(request);
+            byte[] body = Contents.bytes(response.getContent());
+            response.setContent(Contents.bytes(body));
+            archive.store(key, ArchivedResponse.from(response, body));
+            return response;
+        };
+    }
+    
+    /**
+     * Build the archive key of a request: method and URL, with query parameters sorted
+     * and ignored parameters removed so equivalent requests share a key.
+     *
+     * @param method HTTP method
+     * @param uri request URL
+     * @return request key
+     */
+    public String requestKey(String method, String uri) {
+        URI parsed;
+        try {
+            parsed = URI.create(uri);
+        } catch (IllegalArgumentException e) {
+            return method + " " + uri; // Not a well-formed URI, use it as it is
+        }
+        String query = parsed.getRawQuery();
+        StringBuilder key = new StringBuilder(method).append(' ')
+                .append(parsed.getScheme()).append("://").append(parsed.getRawAuthority())
+                .append(parsed.getRawPath());
+        if (query != null) {
+            String normalized = Arrays.stream(query.split("&"))
+                    .filter(param -> !ignoredParams.contains(param.split("=", 2)[0]))
+                    .sorted()
+                    .collect(Collectors.joining("&"));
+            if (!normalized.isEmpty()) {
+                key.append('?').append(normalized);
+            }
+        }
+        return key.toString();
+    }
+}
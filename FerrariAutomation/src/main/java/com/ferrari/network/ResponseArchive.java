@@ -0,0 +1,283 @@
+package com.ferrari.network;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only on-disk archive of HTTP responses, keyed by request.
+ * The file is memory-mapped when opened so replayed responses are served without a
+ * read system call; entries appended afterwards are read with positional reads.
+ * When a key is stored more than once the latest entry wins.
+ *
+ * <p>File layout: a magic number and a format version, followed by entries of the form
+ * {@code keyLength key status headersLength headers bodyLength body}. Lengths and the status
+ * are 4-byte integers, key and headers are UTF-8 with one {@code name: value} header per line.
+ */
+@Log4j2
+public class ResponseArchive implements AutoCloseable {
+    private static final int MAGIC = 0x46524141; // "FRAA"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final Map<Path, ResponseArchive> OPEN_ARCHIVES = new ConcurrentHashMap<>();
+    
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer mapped;
+    private final Map<String, Long> index = new ConcurrentHashMap<>();
+    private final long mappedEnd;
+    private long end;
+    
+    /**
+     * Open an archive file, creating it if it does not exist.
+     *
+     * @param file archive file
+     * @throws IOException if the file cannot be opened or is not an archive
+     */
+    public ResponseArchive(Path file) throws IOException {
+        this.file = file;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            channel.write(ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip(), 0);
+        }
+        this.mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not a response archive: " + file);
+        }
+        this.end = buildIndex();
+        this.mappedEnd = end;
+        log.info("Opened response archive {} with {} responses", file, index.size());
+    }
+    
+    /**
+     * Get the shared archive for a file, so every browser session appends to the same index.
+     *
+     * @param file archive file
+     * @return ResponseArchive instance
+     */
+    public static ResponseArchive open(Path file) {
+        return OPEN_ARCHIVES.computeIfAbsent(file.toAbsolutePath().normalize(), path -> {
+            try {
+                return new ResponseArchive(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open response archive " + path, e);
+            }
+        });
+    }
+    
+    /**
+     * Look up the response archived for a request key.
+     *
+     * @param key request key
+     * @return archived response, or empty if the request was never recorded
+     */
+    public Optional<ArchivedResponse> find(String key) {
+        Long offset = index.get(key);
+        if (offset == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(readEntry(offset));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read response archive " + file, e);
+        }
+    }
+    
+    /**
+     * Append a response to the archive.
+     *
+     * @param key request key
+     * @param response response to store
+     */
+    public synchronized void store(String key, ArchivedResponse response) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] headerBytes = String.join("\n", response.getHeaders()).getBytes(StandardCharsets.UTF_8);
+        byte[] body = response.getBody();
+        ByteBuffer entry = ByteBuffer.allocate(16 + keyBytes.length + headerBytes.length + body.length)
+                .putInt(keyBytes.length).put(keyBytes)
+                .putInt(response.getStatus())
+                .putInt(headerBytes.length).put(headerBytes)
+                .putInt(body.length).put(body)
+                .flip();
+        try {
+            long offset = end;
+            while (entry.hasRemaining()) {
+                end += channel.write(entry, end);
+            }
+            index.put(key, offset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write response archive " + file, e);
+        }
+    }
+    
+    /**
+     * Get the number of distinct requests in the archive.
+     *
+     * @return number of archived requests
+     */
+    public int size() {
+        return index.size();
+    }
+    
+    /**
+     * Close the archive file.
+     */
+    @Override
+    public synchronized void close() {
+        OPEN_ARCHIVES.remove(file.toAbsolutePath().normalize(), this);
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close response archive {}: {}", file, e.getMessage());
+        }
+    }
+    
+    /**
+     * Scan the mapped file and index every complete entry.
+     * A partially written trailing entry, left by an interrupted run, is truncated away.
+     *
+     * @return offset just past the last complete entry
+     * @throws IOException if the file cannot be truncated
+     */
+    private long buildIndex() throws IOException {
+        long limit = mapped.limit();
+        long position = HEADER_SIZE;
+        while (position < limit) {
+            long next = skipEntry(position, limit);
+            if (next < 0) {
+                log.warn("Dropping incomplete entry at offset {} in {}", position, file);
+                channel.truncate(position);
+                break;
+            }
+            index.put(readKey(position), position);
+            position = next;
+        }
+        return position;
+    }
+    
+    /**
+     * Compute where the entry after the one at the given offset starts.
+     *
+     * @param position offset of the entry
+     * @param limit end of the mapped region
+     * @return offset of the next entry, or -1 if the entry is incomplete
+     */
+    private long skipEntry(long position, long limit) {
+        long cursor = position;
+        for (int field = 0; field < 3; field++) {
+            if (cursor + 4 > limit) {
+                return -1;
+            }
+            int length = mapped.getInt((int) cursor);
+            if (length < 0) {
+                return -1;
+            }
+            cursor += 4 + length;
+            if (field == 0) {
+                cursor += 4; // status
+            }
+        }
+        return cursor <= limit ? cursor : -1;
+    }
+    
+    /**
+     * Read the key of a mapped entry.
+     *
+     * @param position offset of the entry
+     * @return request key
+     */
+    private String readKey(long position) {
+        int length = mapped.getInt((int) position);
+        byte[] key = new byte[length];
+        mapped.duplicate().position((int) position + 4).get(key);
+        return new String(key, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Read the entry at the given offset, from the mapping when it covers the entry.
+     *
+     * @param position offset of the entry
+     * @return archived response
+     * @throws IOException if the entry cannot be read from the file
+     */
+    private ArchivedResponse readEntry(long position) throws IOException {
+        ByteBuffer buffer;
+        if (position < mappedEnd) {
+            buffer = mapped.duplicate().position((int) position);
+        } else {
+            buffer = readFromChannel(position);
+        }
+        buffer.position(buffer.position() + 4 + buffer.getInt());
+        int status = buffer.getInt();
+        byte[] headerBytes = new byte[buffer.getInt()];
+        buffer.get(headerBytes);
+        byte[] body = new byte[buffer.getInt()];
+        buffer.get(body);
+        String headerText = new String(headerBytes, StandardCharsets.UTF_8);
+        List<String> headers = headerText.isEmpty()
+                ? List.of() : new ArrayList<>(Arrays.asList(headerText.split("\n")));
+        return new ArchivedResponse(status, headers, body);
+    }
+    
+    /**
+     * Read an entry appended after the file was mapped.
+     *
+     * @param position offset of the entry
+     * @return buffer positioned at the start of the entry
+     * @throws IOException if the entry cannot be read
+     */
+    private ByteBuffer readFromChannel(long position) throws IOException {
+        long length;
+        synchronized (this) {
+            length = skipLength(position);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of response archive " + file);
+            }
+        }
+        return buffer.flip();
+    }
+    
+    /**
+     * Compute the length of an entry that lies beyond the mapped region.
+     *
+     * @param position offset of the entry
+     * @return entry length in bytes
+     * @throws IOException if the length fields cannot be read
+     */
+    private long skipLength(long position) throws IOException {
+        long cursor = position;
+        ByteBuffer length = ByteBuffer.allocate(4);
+        for (int field = 0; field < 3; field++) {
+            length.clear();
+            channel.read(length, cursor);
+            cursor += 4 + length.flip().getInt();
+            if (field == 0) {
+                cursor += 4; // status
+            }
+        }
+        return cursor - position;
+    }
+}
@@ -1,42 +1,123 @@
 package com.ferrari.pages;
 
+import com.ferrari.config.ConfigurationManager;
+import com.ferrari.constants.ResourceType;
+import com.ferrari.constants.TimeoutConstants;
+import com.ferrari.locators.CachingFieldDecorator;
+import com.ferrari.locators.ElementLookup;
+import com.ferrari.locators.GeneratedPageElements;
+import com.ferrari.locators.LazyElement;
+import com.ferrari.locators.LocatorCache;
+import com.ferrari.network.NetworkBlocker;
+import com.ferrari.performance.PagePerformance;
+import com.ferrari.performance.PerformanceBudget;
+import com.ferrari.utils.ScriptResources;
 import com.ferrari.utils.WaitUtils;
+import com.ferrari.waits.WaitCondition;
 import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
 
-import javax.inject.Inject;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Base page class that all page objects extend.
  */
 @Log4j2
 public abstract class BasePage {
+    private static final String READ_ELEMENT_STATES_SCRIPT = ScriptResources.load("js/read-element-states.js");
+    
     protected final WebDriver driver;
     
     /**
      * Constructor for base page with WebDriver injection.
+     * {@code @FindBy} fields are wired by the {@code _Elements} class generated at build time,
+     * falling back to {@link PageFactory} for classes without one.
      *
      * @param driver WebDriver instance
      */
     @Inject
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this);
+        boolean cached = ConfigurationManager.getInstance().isLocatorCacheEnabled();
+        if (!GeneratedPageElements.initElements(this, new ElementLookup(driver, cached), BasePage.class)) {
+            if (cached) {
+                PageFactory.initElements(new CachingFieldDecorator(driver), this);
+            } else {
+                PageFactory.initElements(driver, this);
+            }
+        }
         log.debug("Initialized {}", this.getClass().getSimpleName());
     }
     
     /**
-     * Navigate to a URL.
+     * Get the resource types this page needs, exempted from the configured block list
+     * when navigating to the page. Pages reached by clicking keep the block list in effect.
+     *
+     * @return required resource types, none by default
+     */
+    protected ResourceType[] getRequiredResources() {
+        return new ResourceType[0];
+    }
+    
+    /**
+     * Get the condition that tells this page is ready to be used.
+     * Pages override it with the element they interact with first, so that with an
+     * {@code eager} or {@code none} page load strategy navigation does not wait for every subresource.
+     *
+     * @return ready condition, the document being completely loaded by default
+     */
+    protected WaitCondition<?> getReadyCondition() {
+        return WaitCondition.pageLoaded();
+    }
+    
+    /**
+     * Navigate to a URL, blocking the configured resources the page does not need,
+     * and return as soon as the page is ready. With {@code performance.enabled} the page load
+     * metrics are measured once the page is ready, unless the thread turned measurement off.
      *
      * @param url URL to navigate to
      */
     public void navigateTo(String url) {
         log.info("Navigating to: {}", url);
+        NetworkBlocker.apply(driver,
+                ConfigurationManager.getInstance().getBlockList().allowing(getRequiredResources()));
+        LocatorCache.invalidate(driver);
         driver.navigate().to(url);
-        WaitUtils.waitForPageLoad(driver);
+        WaitUtils.await(driver, getReadyCondition().named(waitName("ready")), TimeoutConstants.MEDIUM_WAIT);
+        if (PagePerformance.isEnabled()) {
+            measurePerformance();
+        }
+    }
+    
+    /**
+     * Get the performance budget of this page, checked every time its load metrics are measured.
+     *
+     * @return budget, none by default
+     */
+    protected PerformanceBudget getPerformanceBudget() {
+        return PerformanceBudget.none();
+    }
+    
+    /**
+     * Read the load metrics of the current page (Navigation Timing, paint, Resource Timing, LCP and CLS)
+     * and check them against {@link #getPerformanceBudget()}. Called by {@link #navigateTo(String)};
+     * steps call it for pages reached by clicking. The measurement is attached to the scenario report.
+     *
+     * @return the measurement, or null if the browser cannot report page timings
+     */
+    public PagePerformance.Measurement measurePerformance() {
+        return PagePerformance.measure(driver, getClass().getSimpleName(), getPerformanceBudget());
     }
     
     /**
@@ -55,7 +136,8 @@ public abstract class BasePage {
      */
     protected void click(WebElement element) {
         log.debug("Clicking element: {}", element);
-        WaitUtils.waitForElementClickable(driver, element).click();
+        WaitUtils.await(driver, WaitCondition.clickable(element).named(waitName("clickable", element)),
+                TimeoutConstants.MEDIUM_WAIT).click();
     }
     
     /**
@@ -66,7 +148,7 @@ public abstract class BasePage {
      */
     protected void sendKeys(WebElement element, String text) {
         log.debug("Sending text to element: {}", element);
-        WaitUtils.waitForElementVisible(driver, element).sendKeys(text);
+        waitForVisible(element).sendKeys(text);
     }
     
     /**
@@ -77,13 +159,44 @@ public abstract class BasePage {
      */
     protected boolean isElementDisplayed(WebElement element) {
         try {
-            return WaitUtils.waitForElementVisible(driver, element).isDisplayed();
+            return waitForVisible(element).isDisplayed();
         } catch (Exception e) {
             log.debug("Element is not displayed: {}", element);
             return false;
         }
     }
     
+    /**
+     * Check that an element is missing or hidden.
+     * Returns as soon as the element is absent and waits at most {@link TimeoutConstants#ABSENCE_WAIT}.
+     *
+     * @param element WebElement expected to be absent
+     * @return true if element is absent, false if it is still displayed
+     */
+    protected boolean isElementAbsent(WebElement element) {
+        return WaitUtils.isElementAbsent(driver, element, TimeoutConstants.ABSENCE_WAIT);
+    }
+    
+    /**
+     * Wait for a list of elements to contain at least one element.
+     *
+     * @param elements elements to resolve, typically a PageFactory list
+     * @return resolved elements, empty if none appeared within the timeout
+     */
+    protected List<WebElement> waitForElements(List<WebElement> elements) {
+        try {
+            return WaitUtils.await(driver,
+                    WaitCondition.of("elements to be present", driver1 -> {
+                        List<WebElement> resolved = new ArrayList<>(elements);
+                        return resolved.isEmpty() ? null : resolved;
+                    }).named(waitName("elementsPresent")),
+                    TimeoutConstants.MEDIUM_WAIT);
+        } catch (TimeoutException e) {
+            log.debug("No elements found: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+    
     /**
      * Get text from an element with explicit wait.
      *
@@ -91,7 +204,52 @@ public abstract class BasePage {
      * @return text of the element
      */
     protected String getText(WebElement element) {
-        return WaitUtils.waitForElementVisible(driver, element).getText();
+        return waitForVisible(element).getText();
+    }
+    
+    /**
+     * Wait for an element to be visible, recording the wait under a stable name.
+     *
+     * @param element WebElement to wait for
+     * @return WebElement once it becomes visible
+     */
+    protected WebElement waitForVisible(WebElement element) {
+        return WaitUtils.await(driver, WaitCondition.visible(element).named(waitName("visible", element)),
+                TimeoutConstants.MEDIUM_WAIT);
+    }
+    
+    /**
+     * Build the name under which a page-level wait is recorded.
+     *
+     * @param action what is waited for, e.g. {@code pageLoad}
+     * @return wait name, e.g. {@code GoogleHomePage.pageLoad}
+     */
+    protected String waitName(String action) {
+        return getClass().getSimpleName() + "." + action;
+    }
+    
+    /**
+     * Build the name under which a wait on an element is recorded.
+     * Uses the locator of the element's page object field, so the name is the same in every run.
+     *
+     * @param action what is waited for, e.g. {@code visible}
+     * @param element WebElement waited for
+     * @return wait name, e.g. {@code FerrariSF90Page.visible[By.cssSelector: .model_banner]}, or null
+     *         (the wait is not recorded) for elements without a locator of their own, such as list items
+     */
+    protected String waitName(String action, WebElement element) {
+        By by = element instanceof LazyElement ? ((LazyElement) element).getBy() : null;
+        return by == null ? null : waitName(action) + "[" + by + "]";
+    }
+    
+    /**
+     * Take a PNG screenshot of an element once it is visible.
+     *
+     * @param element WebElement to capture
+     * @return PNG bytes
+     */
+    protected byte[] takeElementScreenshot(WebElement element) {
+        return waitForVisible(element).getScreenshotAs(OutputType.BYTES);
     }
     
     /**
@@ -105,4 +263,36 @@ public abstract class BasePage {
         log.debug("Executing JavaScript: {}", script);
         return ((JavascriptExecutor) driver).executeScript(script, args);
     }
+    
+    /**
+     * Read text, visibility, enabled state, href and bounding rect of many elements
+     * in a single script call.
+     *
+     * @param elements elements to read; a PageFactory list is resolved with one lookup
+     * @return immutable snapshots, in the same order as the elements
+     */
+    @SuppressWarnings("unchecked")
+    protected List<ElementState> readElementStates(List<WebElement> elements) {
+        List<WebElement> resolved = new ArrayList<>(elements);
+        if (resolved.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        log.debug("Reading state of {} elements", resolved.size());
+        List<Map<String, Object>> states = (List<Map<String, Object>>) ((JavascriptExecutor) driver)
+                .executeScript(READ_ELEMENT_STATES_SCRIPT, resolved.toArray());
+        return Collections.unmodifiableList(states.stream()
+                .map(ElementState::fromScriptResult)
+                .collect(Collectors.toList()));
+    }
+    
+    /**
+     * Read the state of every element matching a locator, using one lookup and one script call.
+     *
+     * @param locator locator of the elements to read
+     * @return immutable snapshots, in document order
+     */
+    protected List<ElementState> readElementStates(By locator) {
+        return readElementStates(driver.findElements(locator));
+    }
 }
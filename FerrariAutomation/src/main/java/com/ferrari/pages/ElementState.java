@@ -0,0 +1,78 @@
+package com.ferrari.pages;
+
+import lombok.Value;
+import org.openqa.selenium.Rectangle;
+
+import java.util.Map;
+
+/**
+ * Immutable snapshot of an element's state, read in a single script call by
+ * {@link BasePage#readElementStates(java.util.List)}.
+ */
+@Value
+public class ElementState {
+    /**
+     * Rendered text of the element, trimmed.
+     */
+    String text;
+    
+    /**
+     * Whether the element was visible when the snapshot was taken.
+     */
+    boolean displayed;
+    
+    /**
+     * Whether the element was enabled when the snapshot was taken.
+     */
+    boolean enabled;
+    
+    /**
+     * Target of the element if it is a link, or of its closest enclosing link; null if there is none.
+     */
+    String href;
+    
+    /**
+     * Bounding rectangle of the element in viewport coordinates.
+     */
+    int x;
+    int y;
+    int width;
+    int height;
+    
+    /**
+     * Create a snapshot from one entry of the script result.
+     *
+     * @param values values returned by the browser for one element
+     * @return ElementState instance
+     */
+    static ElementState fromScriptResult(Map<String, Object> values) {
+        return new ElementState(
+                (String) values.get("text"),
+                Boolean.TRUE.equals(values.get("displayed")),
+                Boolean.TRUE.equals(values.get("enabled")),
+                (String) values.get("href"),
+                toInt(values.get("x")),
+                toInt(values.get("y")),
+                toInt(values.get("width")),
+                toInt(values.get("height")));
+    }
+    
+    /**
+     * Get the bounding rectangle of the element in viewport coordinates.
+     *
+     * @return a new Rectangle
+     */
+    public Rectangle getRect() {
+        return new Rectangle(x, y, height, width);
+    }
+    
+    /**
+     * Round a number returned by the browser to an int.
+     *
+     * @param value Long or Double from the script result
+     * @return rounded value, 0 if missing
+     */
+    private static int toInt(Object value) {
+        return value instanceof Number ? (int) Math.round(((Number) value).doubleValue()) : 0;
+    }
+}
@@ -1,13 +1,17 @@
 package com.ferrari.pages;
 
+import com.ferrari.constants.ResourceType;
+import com.ferrari.constants.TimeoutConstants;
+import com.ferrari.performance.PerformanceBudget;
+import com.ferrari.performance.PerformanceMetric;
 import com.ferrari.utils.WaitUtils;
+import com.ferrari.waits.WaitCondition;
 import lombok.extern.log4j.Log4j2;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
-import javax.inject.Inject;
-import java.time.Duration;
+import jakarta.inject.Inject;
 
 /**
  * Page object for Ferrari SF90 page.
@@ -15,11 +19,20 @@ import java.time.Duration;
 @Log4j2
 public class FerrariSF90Page extends BasePage {
     
+    /**
+     * Outcome of {@link #matchUrl(String, String)}.
+     */
+    public enum UrlMatch {
+        EXACT,
+        CONTAINS,
+        NONE
+    }
+    
     @FindBy(css = ".model_banner")
-    private WebElement modelBanner;
+    WebElement modelBanner;
     
     @FindBy(css = ".model-name")
-    private WebElement modelName;
+    WebElement modelName;
     
     /**
      * Constructor with WebDriver injection.
@@ -31,6 +44,51 @@ public class FerrariSF90Page extends BasePage {
         super(driver);
     }
     
+    /**
+     * Ferrari SF90 page needs its images, fonts and media, since its banner is checked visually
+     * and its load is measured against a budget.
+     *
+     * @return required resource types
+     */
+    @Override
+    protected ResourceType[] getRequiredResources() {
+        return new ResourceType[]{ResourceType.IMAGE, ResourceType.FONT, ResourceType.MEDIA};
+    }
+    
+    /**
+     * Ferrari SF90 page is ready once the model banner is visible.
+     *
+     * @return ready condition
+     */
+    @Override
+    protected WaitCondition<?> getReadyCondition() {
+        return WaitCondition.visible(modelBanner);
+    }
+    
+    /**
+     * Ferrari SF90 page must answer within 800 ms and show its banner within 2.5 s.
+     *
+     * @return performance budget
+     */
+    @Override
+    protected PerformanceBudget getPerformanceBudget() {
+        return PerformanceBudget.none()
+                .max(PerformanceMetric.TTFB, 800)
+                .max(PerformanceMetric.LCP, 2500);
+    }
+    
+    /**
+     * Navigate to the Ferrari SF90 page.
+     *
+     * @param url Ferrari SF90 URL
+     * @return this page object
+     */
+    public FerrariSF90Page goTo(String url) {
+        log.info("Navigating to Ferrari SF90 page: {}", url);
+        navigateTo(url);
+        return this;
+    }
+    
     /**
      * Check if page URL matches expected URL.
      *
@@ -43,7 +101,9 @@ public class FerrariSF90Page extends BasePage {
         log.info("Expected URL: {}", expectedUrl);
         
         try {
-            WaitUtils.waitForUrlToBe(driver, expectedUrl, Duration.ofSeconds(10));
+            WaitUtils.await(driver,
+                    WaitCondition.urlToBe(expectedUrl).named(waitName("urlToBe[" + expectedUrl + "]")),
+                    TimeoutConstants.MEDIUM_WAIT);
             return true;
         } catch (Exception e) {
             log.warn("URL does not match expected URL: {}", e.getMessage());
@@ -51,6 +111,32 @@ public class FerrariSF90Page extends BasePage {
         }
     }
     
+    /**
+     * Wait for the page URL to either match the expected URL or contain a text, whichever comes first.
+     * Both alternatives are checked in the same wait, so a URL that only contains the text
+     * does not first wait out the exact match.
+     *
+     * @param expectedUrl expected URL
+     * @param urlText text the URL may contain instead
+     * @return which alternative matched, NONE if neither did within the timeout
+     */
+    public UrlMatch matchUrl(String expectedUrl, String urlText) {
+        log.info("Checking if current URL is {} or contains: {}", expectedUrl, urlText);
+        log.info("Current URL: {}", getCurrentUrl());
+        
+        WaitCondition<Boolean> exact = WaitCondition.urlToBe(expectedUrl);
+        try {
+            WaitCondition<?> matched = WaitUtils.await(driver,
+                    WaitCondition.anyOf(exact, WaitCondition.urlContains(urlText))
+                            .named(waitName("urlMatches[" + expectedUrl + "|" + urlText + "]")),
+                    TimeoutConstants.MEDIUM_WAIT);
+            return matched == exact ? UrlMatch.EXACT : UrlMatch.CONTAINS;
+        } catch (Exception e) {
+            log.warn("URL neither matches expected URL nor contains expected text: {}", e.getMessage());
+            return UrlMatch.NONE;
+        }
+    }
+    
     /**
      * Check if page URL contains expected text.
      *
@@ -62,7 +148,9 @@ public class FerrariSF90Page extends BasePage {
         log.info("Current URL: {}", getCurrentUrl());
         
         try {
-            WaitUtils.waitForUrlToContain(driver, urlText, Duration.ofSeconds(10));
+            WaitUtils.await(driver,
+                    WaitCondition.urlContains(urlText).named(waitName("urlContains[" + urlText + "]")),
+                    TimeoutConstants.MEDIUM_WAIT);
             return true;
         } catch (Exception e) {
             log.warn("URL does not contain expected text: {}", e.getMessage());
@@ -79,6 +167,15 @@ public class FerrariSF90Page extends BasePage {
         return isElementDisplayed(modelBanner);
     }
     
+    /**
+     * Take a screenshot of the model banner for visual comparison.
+     *
+     * @return PNG bytes
+     */
+    public byte[] getModelBannerScreenshot() {
+        return takeElementScreenshot(modelBanner);
+    }
+    
     /**
      * Get the model name.
      *
@@ -1,12 +1,13 @@
 package com.ferrari.pages;
 
+import com.ferrari.waits.WaitCondition;
 import lombok.extern.log4j.Log4j2;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
-import javax.inject.Inject;
+import jakarta.inject.Inject;
 
 /**
  * Page object for Google home page.
@@ -15,10 +16,10 @@ import javax.inject.Inject;
 public class GoogleHomePage extends BasePage {
     
     @FindBy(name = "q")
-    private WebElement searchInput;
+    WebElement searchInput;
     
     @FindBy(name = "btnK")
-    private WebElement searchButton;
+    WebElement searchButton;
     
     /**
      * Constructor with WebDriver injection.
@@ -30,6 +31,16 @@ public class GoogleHomePage extends BasePage {
         super(driver);
     }
     
+    /**
+     * Google home page is ready once the search box can be typed into.
+     *
+     * @return ready condition
+     */
+    @Override
+    protected WaitCondition<?> getReadyCondition() {
+        return WaitCondition.clickable(searchInput);
+    }
+    
     /**
      * Navigate to Google home page.
      *
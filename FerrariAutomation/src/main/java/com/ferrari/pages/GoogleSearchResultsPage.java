@@ -1,11 +1,12 @@
 package com.ferrari.pages;
 
+import com.ferrari.waits.WaitCondition;
 import lombok.extern.log4j.Log4j2;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
-import javax.inject.Inject;
+import jakarta.inject.Inject;
 import java.util.List;
 
 /**
@@ -15,7 +16,10 @@ import java.util.List;
 public class GoogleSearchResultsPage extends BasePage {
     
     @FindBy(css = "h3")
-    private List<WebElement> searchResultTitles;
+    List<WebElement> searchResultTitles;
+    
+    @FindBy(css = "h3")
+    WebElement firstResultTitle;
     
     /**
      * Constructor with WebDriver injection.
@@ -27,21 +31,29 @@ public class GoogleSearchResultsPage extends BasePage {
         super(driver);
     }
     
+    /**
+     * Search results page is ready once the first result title is visible.
+     *
+     * @return ready condition
+     */
+    @Override
+    protected WaitCondition<?> getReadyCondition() {
+        return WaitCondition.visible(firstResultTitle);
+    }
+    
     /**
      * Click on the first search result.
      *
      * @return FerrariSF90Page
      */
     public FerrariSF90Page clickFirstResult() {
-        if (searchResultTitles.isEmpty()) {
+        List<WebElement> results = waitForElements(searchResultTitles);
+        if (results.isEmpty()) {
             log.error("No search results found");
             throw new RuntimeException("No search results found");
         }
         
-        log.info("Clicking on first search result: {}", searchResultTitles.get(0).getText());
-        click(searchResultTitles.get(0));
-        
-        return new FerrariSF90Page(driver);
+        return clickResult(results, 0);
     }
     
     /**
@@ -51,13 +63,35 @@ public class GoogleSearchResultsPage extends BasePage {
      * @return FerrariSF90Page
      */
     public FerrariSF90Page clickResultByIndex(int index) {
-        if (index < 0 || index >= searchResultTitles.size()) {
+        List<WebElement> results = waitForElements(searchResultTitles);
+        if (index < 0 || index >= results.size()) {
             log.error("Invalid search result index: {}", index);
             throw new IndexOutOfBoundsException("Invalid search result index: " + index);
         }
         
-        log.info("Clicking on search result at index {}: {}", index, searchResultTitles.get(index).getText());
-        click(searchResultTitles.get(index));
+        return clickResult(results, index);
+    }
+    
+    /**
+     * Get a snapshot of all search results, read in a single script call.
+     *
+     * @return immutable result states, in page order
+     */
+    public List<ElementState> getResultStates() {
+        return readElementStates(searchResultTitles);
+    }
+    
+    /**
+     * Click on a search result from an already resolved result list.
+     *
+     * @param results resolved search result titles
+     * @param index result index (0-based)
+     * @return FerrariSF90Page
+     */
+    private FerrariSF90Page clickResult(List<WebElement> results, int index) {
+        ElementState result = readElementStates(results.subList(index, index + 1)).get(0);
+        log.info("Clicking on search result at index {}: {} ({})", index, result.getText(), result.getHref());
+        click(results.get(index));
         
         return new FerrariSF90Page(driver);
     }
@@ -68,7 +102,7 @@ public class GoogleSearchResultsPage extends BasePage {
      * @return number of search results
      */
     public int getNumberOfResults() {
-        return searchResultTitles.size();
+        return waitForElements(searchResultTitles).size();
     }
     
     /**
@@ -77,6 +111,6 @@ public class GoogleSearchResultsPage extends BasePage {
      * @return true if loaded, false otherwise
      */
     public boolean isLoaded() {
-        return !searchResultTitles.isEmpty();
+        return !waitForElements(searchResultTitles).isEmpty();
     }
 }
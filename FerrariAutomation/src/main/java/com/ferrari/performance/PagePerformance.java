@@ -0,0 +1,136 @@
+package com.ferrari.performance;
+
+import com.ferrari.config.ConfigurationManager;
+import com.ferrari.constants.TimeoutConstants;
+import com.ferrari.utils.ScriptResources;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the page load metrics of the current page and checks them against the page's budget.
+ * The metrics are read once the document has finished loading and {@code performance.settleMillis}
+ * have passed, so the load event is complete and LCP has usually settled.
+ * Measurements are kept per thread until the scenario hooks attach them to the report.
+ * Threads whose timings must not include the measurement, such as load run users, turn it off
+ * with {@link #setEnabled(boolean)}.
+ */
+@Log4j2
+public class PagePerformance {
+    private static final String SCRIPT = ScriptResources.load("js/read-page-timings.js");
+    
+    private static final ThreadLocal<List<Measurement>> MEASUREMENTS = ThreadLocal.withInitial(ArrayList::new);
+    private static final ThreadLocal<Boolean> DISABLED = new ThreadLocal<>();
+    
+    /**
+     * Page timings with the budget they were checked against.
+     */
+    @Value
+    public static class Measurement {
+        PageTimings timings;
+        PerformanceBudget budget;
+        
+        /**
+         * Exceeded limits, empty if the page is within budget.
+         */
+        List<String> breaches;
+        
+        /**
+         * Multi-line report of the measurement, attached to the scenario.
+         *
+         * @return metrics, resources, budget and breaches
+         */
+        public String toReport() {
+            StringBuilder report = new StringBuilder();
+            report.append(timings.getPage()).append(" (").append(timings.getUrl()).append(")\n");
+            timings.getMetrics().forEach((metric, value) -> report.append("  ").append(metric.format(value)).append('\n'));
+            report.append("  Resources: ").append(timings.getResourceCount())
+                    .append(" (").append(timings.getTransferBytes() / 1024).append(" KB transferred)\n");
+            if (timings.getSlowestResource() != null) {
+                report.append(String.format("  Slowest resource: %.0f ms %s%n",
+                        timings.getSlowestResourceMillis(), timings.getSlowestResource()));
+            }
+            report.append("  ").append(budget).append('\n');
+            breaches.forEach(breach -> report.append("  EXCEEDED: ").append(breach).append('\n'));
+            return report.toString();
+        }
+    }
+    
+    private PagePerformance() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Check whether pages are measured on the current thread after they load.
+     *
+     * @return true if {@code performance.enabled} is set and the thread has not turned measurement off
+     */
+    public static boolean isEnabled() {
+        return ConfigurationManager.getInstance().isPerformanceEnabled() && DISABLED.get() == null;
+    }
+    
+    /**
+     * Turn page measurement on or off for the current thread.
+     *
+     * @param enabled false to skip measurement on this thread, true to follow {@code performance.enabled} again
+     */
+    public static void setEnabled(boolean enabled) {
+        if (enabled) {
+            DISABLED.remove();
+        } else {
+            DISABLED.set(Boolean.TRUE);
+        }
+    }
+    
+    /**
+     * Read the metrics of the page currently loaded and record them for the current scenario.
+     *
+     * @param driver WebDriver instance
+     * @param page page object name
+     * @param budget budget of the page
+     * @return the measurement, or null if the browser cannot report page timings
+     */
+    @SuppressWarnings("unchecked")
+    public static Measurement measure(WebDriver driver, String page, PerformanceBudget budget) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return null;
+        }
+        
+        Map<String, Object> result;
+        try {
+            result = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(SCRIPT,
+                    ConfigurationManager.getInstance().getPerformanceSettleMillis(),
+                    TimeoutConstants.MEDIUM_WAIT.toMillis());
+        } catch (WebDriverException | UnsupportedOperationException | ClassCastException e) {
+            log.debug("Page timings unavailable for {}: {}", page, e.getMessage());
+            return null;
+        }
+        if (result == null) {
+            return null;
+        }
+        
+        PageTimings timings = PageTimings.fromScriptResult(page, result);
+        Measurement measurement = new Measurement(timings, budget, budget.check(timings));
+        MEASUREMENTS.get().add(measurement);
+        log.info("{} performance: {}", page, timings.summary());
+        measurement.getBreaches().forEach(breach -> log.warn("Performance budget exceeded: {}", breach));
+        return measurement;
+    }
+    
+    /**
+     * Get and forget the measurements taken on the current thread since the last call.
+     *
+     * @return measurements in the order they were taken
+     */
+    public static List<Measurement> drain() {
+        List<Measurement> measurements = new ArrayList<>(MEASUREMENTS.get());
+        MEASUREMENTS.remove();
+        return measurements;
+    }
+}
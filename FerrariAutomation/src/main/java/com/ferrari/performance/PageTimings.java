@@ -0,0 +1,92 @@
+package com.ferrari.performance;
+
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Performance of one page load, as reported by the browser's Navigation Timing, Paint Timing,
+ * Resource Timing, Largest Contentful Paint and Layout Instability entries.
+ * Metrics the browser does not support, or that were not reached yet when they were read, are missing.
+ */
+@Value
+public class PageTimings {
+    /**
+     * Page object the timings were read for, e.g. {@code FerrariSF90Page}.
+     */
+    String page;
+    
+    String url;
+    
+    Map<PerformanceMetric, Double> metrics;
+    
+    int resourceCount;
+    
+    long transferBytes;
+    
+    /**
+     * URL of the slowest subresource, or null if the page loaded none.
+     */
+    String slowestResource;
+    
+    double slowestResourceMillis;
+    
+    /**
+     * Create timings from the result of the timing script.
+     *
+     * @param page page object name
+     * @param result map returned by {@code read-page-timings.js}
+     * @return PageTimings instance
+     */
+    public static PageTimings fromScriptResult(String page, Map<String, Object> result) {
+        Map<PerformanceMetric, Double> metrics = new EnumMap<>(PerformanceMetric.class);
+        for (PerformanceMetric metric : PerformanceMetric.values()) {
+            Object value = result.get(metric.getScriptName());
+            if (value instanceof Number) {
+                metrics.put(metric, ((Number) value).doubleValue());
+            }
+        }
+        return new PageTimings(page, (String) result.get("url"), Collections.unmodifiableMap(metrics),
+                toNumber(result.get("resourceCount")).intValue(),
+                toNumber(result.get("transferBytes")).longValue(),
+                (String) result.get("slowestResource"),
+                toNumber(result.get("slowestResourceMillis")).doubleValue());
+    }
+    
+    /**
+     * Get the value of a metric.
+     *
+     * @param metric metric to read
+     * @return metric value, or empty if it was not measured
+     */
+    public Optional<Double> get(PerformanceMetric metric) {
+        return Optional.ofNullable(metrics.get(metric));
+    }
+    
+    /**
+     * One-line summary of the metrics.
+     *
+     * @return e.g. {@code TTFB 212 ms, FCP 640 ms, LCP 1840 ms, CLS 0.012, 48 resources (1210 KB)}
+     */
+    public String summary() {
+        String measured = metrics.entrySet().stream()
+                .map(entry -> entry.getKey().format(entry.getValue()))
+                .collect(Collectors.joining(", "));
+        return measured + (measured.isEmpty() ? "" : ", ") + resourceCount + " resources ("
+                + transferBytes / 1024 + " KB)";
+    }
+    
+    /**
+     * Convert a script value to a number.
+     *
+     * @param value value returned by the script
+     * @return the number, 0 if the value is missing
+     */
+    private static Number toNumber(Object value) {
+        return value instanceof Number ? (Number) value : 0;
+    }
+}
@@ -0,0 +1,81 @@
+package com.ferrari.performance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Upper limits for the page load metrics of a page object.
+ * Budgets are immutable; {@link #max} returns a copy with one more limit:
+ * {@code PerformanceBudget.none().max(PerformanceMetric.TTFB, 800).max(PerformanceMetric.LCP, 2500)}.
+ */
+public class PerformanceBudget {
+    private static final PerformanceBudget NONE = new PerformanceBudget(new EnumMap<>(PerformanceMetric.class));
+    
+    private final Map<PerformanceMetric, Double> limits;
+    
+    /**
+     * Constructor.
+     *
+     * @param limits limit of each budgeted metric
+     */
+    private PerformanceBudget(Map<PerformanceMetric, Double> limits) {
+        this.limits = Collections.unmodifiableMap(limits);
+    }
+    
+    /**
+     * Budget without limits.
+     *
+     * @return empty budget
+     */
+    public static PerformanceBudget none() {
+        return NONE;
+    }
+    
+    /**
+     * Get a copy of this budget with an upper limit for a metric.
+     *
+     * @param metric metric to limit
+     * @param limit highest acceptable value, in milliseconds for times
+     * @return new PerformanceBudget
+     */
+    public PerformanceBudget max(PerformanceMetric metric, double limit) {
+        Map<PerformanceMetric, Double> copy = new EnumMap<>(PerformanceMetric.class);
+        copy.putAll(limits);
+        copy.put(metric, limit);
+        return new PerformanceBudget(copy);
+    }
+    
+    /**
+     * Check whether the budget has any limit.
+     *
+     * @return true if no metric is limited
+     */
+    public boolean isEmpty() {
+        return limits.isEmpty();
+    }
+    
+    /**
+     * Compare page timings with the budget. Metrics the browser did not report are not checked.
+     *
+     * @param timings measured page timings
+     * @return one message per exceeded limit, empty if the page is within budget
+     */
+    public List<String> check(PageTimings timings) {
+        List<String> breaches = new ArrayList<>();
+        limits.forEach((metric, limit) -> timings.get(metric)
+                .filter(value -> value > limit)
+                .ifPresent(value -> breaches.add(timings.getPage() + " " + metric.format(value)
+                        + " exceeds budget of " + metric.formatValue(limit))));
+        return breaches;
+    }
+    
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>();
+        limits.forEach((metric, limit) -> parts.add(metric.format(limit)));
+        return parts.isEmpty() ? "no budget" : "budget " + String.join(", ", parts);
+    }
+}
@@ -0,0 +1,58 @@
+package com.ferrari.performance;
+
+/**
+ * Page load metrics read from the browser after a navigation.
+ * Times are in milliseconds from the start of the navigation; CLS is a unitless score.
+ */
+public enum PerformanceMetric {
+    TTFB("ttfb", "TTFB"),
+    FIRST_PAINT("firstPaint", "First paint"),
+    FCP("fcp", "FCP"),
+    LCP("lcp", "LCP"),
+    CLS("cls", "CLS"),
+    DOM_CONTENT_LOADED("domContentLoaded", "DOMContentLoaded"),
+    LOAD("load", "Load");
+    
+    private final String scriptName;
+    private final String label;
+    
+    /**
+     * Constructor.
+     *
+     * @param scriptName key of the metric in the result of the timing script
+     * @param label name shown in logs and reports
+     */
+    PerformanceMetric(String scriptName, String label) {
+        this.scriptName = scriptName;
+        this.label = label;
+    }
+    
+    /**
+     * Get the key of the metric in the result of the timing script.
+     *
+     * @return script key
+     */
+    public String getScriptName() {
+        return scriptName;
+    }
+    
+    /**
+     * Format a value of this metric with its name.
+     *
+     * @param value metric value
+     * @return e.g. {@code LCP 1840 ms} or {@code CLS 0.052}
+     */
+    public String format(double value) {
+        return label + " " + formatValue(value);
+    }
+    
+    /**
+     * Format a value of this metric with its unit.
+     *
+     * @param value metric value
+     * @return e.g. {@code 1840 ms} or {@code 0.052}
+     */
+    public String formatValue(double value) {
+        return this == CLS ? String.format("%.3f", value) : String.format("%.0f ms", value);
+    }
+}
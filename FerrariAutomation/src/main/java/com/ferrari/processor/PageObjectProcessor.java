@@ -0,0 +1,277 @@
+package com.ferrari.processor;
+
+import org.openqa.selenium.support.FindBy;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Annotation processor generating the element wiring of page objects at build time.
+ * For every {@code BasePage} subclass with {@code @FindBy} fields it writes a {@code <Page>_Elements}
+ * class in the same package that assigns each field a lazily resolved element, with the {@code By}
+ * locator coded directly, so page objects can be created without {@code PageFactory} reflection and
+ * dynamic proxies. Other classes with {@code @FindBy} fields are left alone.
+ *
+ * <p>This class is compiled before the rest of the sources (see the {@code compile-processor}
+ * execution in the pom), so it must not use Lombok or other project classes. It is not registered
+ * as a service: the pom names it explicitly, so it never runs in projects depending on this one.
+ */
+@SupportedAnnotationTypes("org.openqa.selenium.support.FindBy")
+public class PageObjectProcessor extends AbstractProcessor {
+    private static final String SUFFIX = "_Elements";
+    private static final String BASE_PAGE = "com.ferrari.pages.BasePage";
+    
+    /**
+     * Support the source version of the compiler running the processor.
+     *
+     * @return latest supported source version
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+    
+    /**
+     * Generate the wiring class of every page object with {@code @FindBy} fields.
+     *
+     * @param annotations annotation types requested
+     * @param roundEnv environment of the current round
+     * @return false, so other processors may also handle {@code @FindBy}
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement basePage = processingEnv.getElementUtils().getTypeElement(BASE_PAGE);
+        if (basePage == null) {
+            return false;
+        }
+        TypeMirror basePageType = processingEnv.getTypeUtils().erasure(basePage.asType());
+        
+        Map<TypeElement, List<VariableElement>> fieldsByPage = new LinkedHashMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(FindBy.class)) {
+            if (element.getKind() != ElementKind.FIELD || !isPageObject(element.getEnclosingElement(), basePageType)) {
+                continue;
+            }
+            fieldsByPage.computeIfAbsent((TypeElement) element.getEnclosingElement(), page -> new ArrayList<>())
+                    .add((VariableElement) element);
+        }
+        
+        for (Map.Entry<TypeElement, List<VariableElement>> entry : fieldsByPage.entrySet()) {
+            generate(entry.getKey(), entry.getValue());
+        }
+        return false;
+    }
+    
+    /**
+     * Check whether a class is a page object, i.e. a subclass of {@code BasePage}.
+     *
+     * @param type class declaring a {@code @FindBy} field
+     * @param basePageType erased {@code BasePage} type
+     * @return true if the class extends {@code BasePage}
+     */
+    private boolean isPageObject(Element type, TypeMirror basePageType) {
+        return processingEnv.getTypeUtils().isSubtype(processingEnv.getTypeUtils().erasure(type.asType()), basePageType);
+    }
+    
+    /**
+     * Generate the wiring class of one page object.
+     *
+     * @param page page object class
+     * @param fields its {@code @FindBy} fields
+     */
+    private void generate(TypeElement page, List<VariableElement> fields) {
+        if (page.getNestingKind() != NestingKind.TOP_LEVEL) {
+            error(page, "Page objects with @FindBy fields must be top-level classes");
+            return;
+        }
+        
+        StringBuilder assignments = new StringBuilder();
+        for (VariableElement field : fields) {
+            String assignment = assignment(field);
+            if (assignment == null) {
+                return;
+            }
+            assignments.append("        ").append(assignment).append('\n');
+        }
+        
+        String packageName = ((PackageElement) page.getEnclosingElement()).getQualifiedName().toString();
+        String pageName = page.getSimpleName().toString();
+        String className = pageName + SUFFIX;
+        String source = (packageName.isEmpty() ? "" : "package " + packageName + ";\n\n")
+                + "import com.ferrari.locators.ElementLookup;\n"
+                + "import com.ferrari.locators.PageElements;\n"
+                + "import org.openqa.selenium.By;\n"
+                + "\n"
+                + "import javax.annotation.processing.Generated;\n"
+                + "\n"
+                + "/**\n"
+                + " * Element wiring of {@link " + pageName + "}, generated from its {@code @FindBy} fields.\n"
+                + " */\n"
+                + "@Generated(\"" + PageObjectProcessor.class.getName() + "\")\n"
+                + "public final class " + className + " implements PageElements<" + pageName + "> {\n"
+                + "    @Override\n"
+                + "    public void initElements(" + pageName + " page, ElementLookup lookup) {\n"
+                + assignments
+                + "    }\n"
+                + "}\n";
+        
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, page).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            error(page, "Could not write " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Build the statement assigning a field its element or element list.
+     *
+     * @param field {@code @FindBy} field
+     * @return assignment statement, or null if the field cannot be wired
+     */
+    private String assignment(VariableElement field) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)
+                || modifiers.contains(Modifier.FINAL)) {
+            error(field, "@FindBy fields must not be private, static or final to be wired by generated code");
+            return null;
+        }
+        
+        String by = byExpression(field.getAnnotation(FindBy.class));
+        if (by == null) {
+            error(field, "@FindBy does not specify a locator");
+            return null;
+        }
+        
+        TypeMirror type = field.asType();
+        String name = field.getSimpleName().toString();
+        if (type.toString().equals("org.openqa.selenium.WebElement")) {
+            return "page." + name + " = lookup.element(" + by + ");";
+        }
+        if (type.toString().equals("java.util.List<org.openqa.selenium.WebElement>")) {
+            return "page." + name + " = lookup.elements(" + by + ");";
+        }
+        error(field, "@FindBy fields must be WebElement or List<WebElement>");
+        return null;
+    }
+    
+    /**
+     * Build the {@code By} expression of a {@code @FindBy} annotation.
+     * Attributes are checked in the same order as Selenium's {@code FindBy.FindByBuilder}.
+     *
+     * @param findBy annotation
+     * @return Java expression creating the locator, or null if none is specified
+     */
+    private String byExpression(FindBy findBy) {
+        if (!findBy.className().isEmpty()) {
+            return "By.className(" + literal(findBy.className()) + ")";
+        }
+        if (!findBy.css().isEmpty()) {
+            return "By.cssSelector(" + literal(findBy.css()) + ")";
+        }
+        if (!findBy.id().isEmpty()) {
+            return "By.id(" + literal(findBy.id()) + ")";
+        }
+        if (!findBy.linkText().isEmpty()) {
+            return "By.linkText(" + literal(findBy.linkText()) + ")";
+        }
+        if (!findBy.name().isEmpty()) {
+            return "By.name(" + literal(findBy.name()) + ")";
+        }
+        if (!findBy.partialLinkText().isEmpty()) {
+            return "By.partialLinkText(" + literal(findBy.partialLinkText()) + ")";
+        }
+        if (!findBy.tagName().isEmpty()) {
+            return "By.tagName(" + literal(findBy.tagName()) + ")";
+        }
+        if (!findBy.xpath().isEmpty()) {
+            return "By.xpath(" + literal(findBy.xpath()) + ")";
+        }
+        if (findBy.using().isEmpty()) {
+            return null;
+        }
+        
+        String using = literal(findBy.using());
+        switch (findBy.how()) {
+            case CLASS_NAME:
+                return "By.className(" + using + ")";
+            case CSS:
+                return "By.cssSelector(" + using + ")";
+            case ID_OR_NAME:
+                return "new org.openqa.selenium.support.ByIdOrName(" + using + ")";
+            case LINK_TEXT:
+                return "By.linkText(" + using + ")";
+            case NAME:
+                return "By.name(" + using + ")";
+            case PARTIAL_LINK_TEXT:
+                return "By.partialLinkText(" + using + ")";
+            case TAG_NAME:
+                return "By.tagName(" + using + ")";
+            case XPATH:
+                return "By.xpath(" + using + ")";
+            case ID:
+            case UNSET:
+            default:
+                return "By.id(" + using + ")";
+        }
+    }
+    
+    /**
+     * Quote a string as a Java string literal.
+     *
+     * @param value string value
+     * @return Java string literal
+     */
+    private static String literal(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+    
+    /**
+     * Report a compilation error on an element.
+     *
+     * @param element element the error is about
+     * @param message error message
+     */
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,138 @@
+package com.ferrari.reporting;
+
+import com.ferrari.config.ConfigurationManager;
+import lombok.extern.log4j.Log4j2;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Stores report attachments such as screenshots as files instead of inside the reports.
+ * Files are named after the SHA-256 of their content, so identical attachments are written once,
+ * and are written on a background thread; reports only get a link to the file.
+ */
+@Log4j2
+@Singleton
+public class ArtifactStore {
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/png", "png",
+            "image/jpeg", "jpg",
+            "text/plain", "txt",
+            "text/html", "html",
+            "application/json", "json");
+    
+    private final Path directory;
+    private final Path reportDirectory;
+    private final Map<String, CompletableFuture<Void>> writes = new ConcurrentHashMap<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "artifact-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    /**
+     * Constructor with ConfigurationManager dependency.
+     * Pending writes are completed when the JVM exits.
+     *
+     * @param configManager ConfigurationManager instance
+     */
+    @Inject
+    public ArtifactStore(ConfigurationManager configManager) {
+        this(Paths.get(configManager.getArtifactsDir()), Paths.get(configManager.getArtifactsReportDir()));
+    }
+    
+    /**
+     * Constructor with directories.
+     *
+     * @param directory where artifacts are written
+     * @param reportDirectory directory of the reports, links are relative to it
+     */
+    public ArtifactStore(Path directory, Path reportDirectory) {
+        this.directory = directory;
+        this.reportDirectory = reportDirectory;
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "artifact-store-flush"));
+    }
+    
+    /**
+     * Store an attachment and get the link to put in the report instead.
+     * The content is hashed on the calling thread and written in the background.
+     *
+     * @param content attachment bytes
+     * @param mediaType attachment media type, e.g. {@code image/png}
+     * @return link to the file, relative to the report directory
+     */
+    public String store(byte[] content, String mediaType) {
+        String name = sha256(content) + "." + EXTENSIONS.getOrDefault(mediaType, "bin");
+        Path file = directory.resolve(name);
+        writes.computeIfAbsent(name, key -> CompletableFuture.runAsync(() -> write(file, content), writer));
+        return reportDirectory.toAbsolutePath().relativize(file.toAbsolutePath()).toString().replace('\\', '/');
+    }
+    
+    /**
+     * Wait for every pending write to complete.
+     */
+    public void flush() {
+        try {
+            CompletableFuture.allOf(writes.values().toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Not every artifact could be written: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Write an artifact unless a file with the same content already exists.
+     *
+     * @param file target file
+     * @param content file content
+     */
+    private static void write(Path file, byte[] content) {
+        if (Files.exists(file)) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "artifact", ".tmp");
+            Files.write(temp, content);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote artifact {} ({} bytes)", file, content.length);
+        } catch (IOException e) {
+            log.error("Failed to write artifact {}: {}", file, e.getMessage());
+        }
+    }
+    
+    /**
+     * Compute the SHA-256 of some content.
+     *
+     * @param content bytes to hash
+     * @return hex digest
+     */
+    private static String sha256(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.ferrari.sharding;
+
+import com.ferrari.config.ConfigurationManager;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.TypeToken;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line tool combining the reports of several shards into the usual
+ * {@code target/cucumber-reports} outputs: the Cucumber JSON report (features run by several shards
+ * are combined into one feature), the JUnit XML report (test cases and counts are summed) and the
+ * scenario durations recorded by each shard.
+ * {@code mvn compile exec:java -Dexec.mainClass=com.ferrari.sharding.ReportMerger
+ * -Dexec.args="target/cucumber-reports target/cucumber-reports/shard-0 target/cucumber-reports/shard-1"}.
+ */
+@Log4j2
+public class ReportMerger {
+    static final String JSON_REPORT = "cucumber-report.json";
+    static final String JUNIT_REPORT = "cucumber-results.xml";
+    private static final Type FEATURES = new TypeToken<List<Map<String, Object>>>() { }.getType();
+    private static final String[] SUITE_COUNTS = {"tests", "skipped", "failures", "errors"};
+    
+    private final Json json = new Json();
+    
+    /**
+     * Merge the reports of the given shard directories.
+     *
+     * @param args output directory followed by one report directory per shard
+     * @throws Exception if a report cannot be read or written
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: ReportMerger <output dir> <shard report dir>...");
+            System.exit(1);
+        }
+        
+        List<Path> shardDirs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            shardDirs.add(Paths.get(args[i]));
+        }
+        Path outputDir = Paths.get(args[0]);
+        Files.createDirectories(outputDir);
+        
+        ReportMerger merger = new ReportMerger();
+        merger.mergeJson(shardDirs, outputDir.resolve(JSON_REPORT));
+        merger.mergeJunit(shardDirs, outputDir.resolve(JUNIT_REPORT));
+        merger.mergeDurations(shardDirs, Paths.get(ConfigurationManager.getInstance().getShardDurationsFile()));
+    }
+    
+    /**
+     * Merge the Cucumber JSON reports of the shards.
+     *
+     * @param shardDirs shard report directories
+     * @param output merged report
+     * @throws IOException if a report cannot be read or written
+     */
+    void mergeJson(List<Path> shardDirs, Path output) throws IOException {
+        Map<Object, Map<String, Object>> features = new LinkedHashMap<>();
+        for (Path report : reports(shardDirs, JSON_REPORT)) {
+            List<Map<String, Object>> shardFeatures = json.toType(Files.readString(report, StandardCharsets.UTF_8), FEATURES);
+            for (Map<String, Object> feature : shardFeatures) {
+                Map<String, Object> merged = features.get(feature.get("uri"));
+                if (merged == null) {
+                    merged = new LinkedHashMap<>(feature);
+                    merged.put("elements", new ArrayList<>(elements(feature)));
+                    features.put(feature.get("uri"), merged);
+                } else {
+                    elements(merged).addAll(elements(feature));
+                }
+            }
+        }
+        Files.writeString(output, json.toJson(new ArrayList<>(features.values())), StandardCharsets.UTF_8);
+        log.info("Merged {} feature(s) into {}", features.size(), output);
+    }
+    
+    /**
+     * Merge the JUnit XML reports of the shards into one test suite.
+     *
+     * @param shardDirs shard report directories
+     * @param output merged report
+     * @throws IOException if a report cannot be read or written
+     * @throws ParserConfigurationException if no XML parser is available
+     * @throws SAXException if a report is not valid XML
+     * @throws TransformerException if the merged report cannot be written
+     */
+    void mergeJunit(List<Path> shardDirs, Path output)
+            throws IOException, ParserConfigurationException, SAXException, TransformerException {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        Document merged = null;
+        Element suite = null;
+        double time = 0;
+        long[] counts = new long[SUITE_COUNTS.length];
+        
+        for (Path report : reports(shardDirs, JUNIT_REPORT)) {
+            Document document = factory.newDocumentBuilder().parse(report.toFile());
+            Element shardSuite = document.getDocumentElement();
+            time += parseDouble(shardSuite.getAttribute("time"));
+            for (int i = 0; i < SUITE_COUNTS.length; i++) {
+                counts[i] += (long) parseDouble(shardSuite.getAttribute(SUITE_COUNTS[i]));
+            }
+            
+            if (merged == null) {
+                merged = document;
+                suite = shardSuite;
+                continue;
+            }
+            NodeList children = shardSuite.getChildNodes();
+            for (int i = 0; i < children.getLength(); i++) {
+                Node child = children.item(i);
+                if (child.getNodeType() == Node.ELEMENT_NODE) {
+                    suite.appendChild(merged.importNode(child, true));
+                }
+            }
+        }
+        if (merged == null) {
+            return;
+        }
+        
+        suite.setAttribute("time", String.format(Locale.ROOT, "%.3f", time));
+        for (int i = 0; i < SUITE_COUNTS.length; i++) {
+            suite.setAttribute(SUITE_COUNTS[i], String.valueOf(counts[i]));
+        }
+        Transformer transformer = TransformerFactory.newInstance().newTransformer();
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.transform(new DOMSource(merged), new StreamResult(output.toFile()));
+        log.info("Merged {} test case(s) into {}", counts[0], output);
+    }
+    
+    /**
+     * Merge the scenario durations recorded by the shards into the durations file used to plan shards.
+     *
+     * @param shardDirs shard report directories
+     * @param durationsFile durations file to update
+     */
+    void mergeDurations(List<Path> shardDirs, Path durationsFile) {
+        ScenarioDurations durations = new ScenarioDurations(durationsFile);
+        int merged = 0;
+        for (Path shardDurations : reports(shardDirs, durationsFile.getFileName().toString())) {
+            merged += durations.merge(shardDurations);
+        }
+        durations.save();
+        log.info("Merged durations of {} scenario(s) into {}", merged, durationsFile);
+    }
+    
+    /**
+     * Find a report in each shard directory.
+     *
+     * @param shardDirs shard report directories
+     * @param fileName report file name
+     * @return the reports that exist
+     */
+    private static List<Path> reports(List<Path> shardDirs, String fileName) {
+        List<Path> reports = new ArrayList<>();
+        for (Path dir : shardDirs) {
+            Path report = dir.resolve(fileName);
+            if (Files.exists(report)) {
+                reports.add(report);
+            } else {
+                log.warn("No {} in {}", fileName, dir);
+            }
+        }
+        return reports;
+    }
+    
+    /**
+     * Get the scenarios and backgrounds of a feature.
+     *
+     * @param feature feature of a Cucumber JSON report
+     * @return feature elements
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Object> elements(Map<String, Object> feature) {
+        Object elements = feature.get("elements");
+        return elements == null ? new ArrayList<>() : (List<Object>) elements;
+    }
+    
+    /**
+     * Parse a numeric attribute written by the JUnit formatter.
+     *
+     * @param value attribute value, possibly empty
+     * @return the value, or 0 if it is empty
+     */
+    private static double parseDouble(String value) {
+        return value.isEmpty() ? 0 : Double.parseDouble(value.replace(",", ""));
+    }
+}
@@ -0,0 +1,188 @@
+package com.ferrari.sharding;
+
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Historical scenario durations used to plan shards, persisted between runs.
+ * The file holds one line per scenario: the scenario key, the smoothed duration in milliseconds and
+ * the number of runs it was recorded for, separated by tabs.
+ */
+@Log4j2
+public class ScenarioDurations {
+    private static final double SMOOTHING = 0.3;
+    
+    private final Path file;
+    private final Map<String, Sample> samples = new ConcurrentHashMap<>();
+    private final Map<String, Sample> recorded = new ConcurrentHashMap<>();
+    
+    /**
+     * Smoothed duration of one scenario.
+     */
+    @Value
+    static class Sample {
+        long millis;
+        long runs;
+        
+        /**
+         * Add a new duration to the sample.
+         *
+         * @param duration duration of the latest run in milliseconds
+         * @return the updated sample
+         */
+        Sample add(long duration) {
+            return new Sample(Math.round(millis + SMOOTHING * (duration - millis)), runs + 1);
+        }
+    }
+    
+    /**
+     * Constructor loading any existing durations.
+     *
+     * @param file durations file
+     */
+    public ScenarioDurations(Path file) {
+        this.file = file;
+        samples.putAll(read(file));
+        log.info("Loaded durations of {} scenario(s) from {}", samples.size(), file);
+    }
+    
+    /**
+     * Build the key identifying a scenario: the feature path relative to the working directory and
+     * the line of the scenario (or example row), so the same checkout produces the same keys on every machine.
+     *
+     * @param featureUri URI of the feature file
+     * @param line line of the scenario in the feature file
+     * @return scenario key
+     */
+    public static String key(URI featureUri, int line) {
+        String path = featureUri.getSchemeSpecificPart();
+        if ("file".equals(featureUri.getScheme())) {
+            Path feature = Paths.get(featureUri);
+            Path workingDir = Paths.get("").toAbsolutePath();
+            path = (feature.startsWith(workingDir) ? workingDir.relativize(feature) : feature).toString()
+                    .replace('\\', '/');
+        }
+        return path + ":" + line;
+    }
+    
+    /**
+     * Record the duration of a finished scenario.
+     *
+     * @param key scenario key
+     * @param millis time the scenario took in milliseconds
+     */
+    public void record(String key, long millis) {
+        Sample sample = samples.compute(key, (name, previous) ->
+                previous == null ? new Sample(millis, 1) : previous.add(millis));
+        recorded.put(key, sample);
+    }
+    
+    /**
+     * Get the smoothed duration of a scenario.
+     *
+     * @param key scenario key
+     * @return duration in milliseconds, or empty if the scenario has not run before
+     */
+    public Optional<Long> get(String key) {
+        return Optional.ofNullable(samples.get(key)).map(Sample::getMillis);
+    }
+    
+    /**
+     * Take over the durations of another file that were recorded over more runs than the ones held here.
+     * Used to combine the files written by shards: each shard only updates the scenarios it ran.
+     *
+     * @param other durations file of a shard
+     * @return number of scenarios taken over
+     */
+    public int merge(Path other) {
+        int merged = 0;
+        for (Map.Entry<String, Sample> entry : read(other).entrySet()) {
+            Sample current = samples.get(entry.getKey());
+            if (current == null || entry.getValue().getRuns() > current.getRuns()) {
+                samples.put(entry.getKey(), entry.getValue());
+                recorded.put(entry.getKey(), entry.getValue());
+                merged++;
+            }
+        }
+        return merged;
+    }
+    
+    /**
+     * Write the durations file.
+     * The file is re-read first so durations recorded by other forks in the meantime are kept.
+     */
+    public void save() {
+        save(file);
+    }
+    
+    /**
+     * Write the durations recorded since the last save to a file, keeping the durations it already holds.
+     *
+     * @param target durations file to write
+     */
+    public synchronized void save(Path target) {
+        if (recorded.isEmpty()) {
+            return;
+        }
+        
+        Map<String, Sample> merged = new TreeMap<>(read(target));
+        recorded.forEach((key, sample) -> merged.merge(key, sample,
+                (existing, ours) -> ours.getRuns() >= existing.getRuns() ? ours : existing));
+        
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "scenario-durations", ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Sample> entry : merged.entrySet()) {
+                    writer.write(entry.getKey() + "\t" + entry.getValue().getMillis() + "\t" + entry.getValue().getRuns());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            recorded.clear();
+            log.info("Saved durations of {} scenario(s) to {}", merged.size(), target);
+        } catch (IOException e) {
+            log.error("Failed to save scenario durations: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Read a durations file.
+     *
+     * @param path durations file
+     * @return samples by scenario key, empty if the file does not exist or cannot be read
+     */
+    private static Map<String, Sample> read(Path path) {
+        Map<String, Sample> durations = new ConcurrentHashMap<>();
+        if (!Files.exists(path)) {
+            return durations;
+        }
+        
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                String[] fields = line.split("\t");
+                if (fields.length != 3 || fields[0].isEmpty()) {
+                    continue;
+                }
+                durations.put(fields[0], new Sample(Long.parseLong(fields[1].trim()), Long.parseLong(fields[2].trim())));
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Ignoring unreadable scenario durations {}: {}", path, e.getMessage());
+        }
+        return durations;
+    }
+}
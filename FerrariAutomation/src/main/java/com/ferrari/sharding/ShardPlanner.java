@@ -0,0 +1,107 @@
+package com.ferrari.sharding;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Splits scenarios into shards that take about the same time, using historical durations.
+ * Scenarios are assigned longest first to the shard with the least planned time. The plan depends
+ * only on the scenario keys and the durations file, so every shard computes the same plan
+ * independently and each scenario runs in exactly one shard.
+ */
+@Log4j2
+public class ShardPlanner {
+    private static final long DEFAULT_MILLIS = 30_000;
+    
+    private final ScenarioDurations durations;
+    private final int index;
+    private final int count;
+    
+    /**
+     * Constructor.
+     *
+     * @param durations historical scenario durations
+     * @param index index of this shard, from 0
+     * @param count number of shards
+     */
+    public ShardPlanner(ScenarioDurations durations, int index, int count) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid shard " + index + " of " + count);
+        }
+        this.durations = durations;
+        this.index = index;
+        this.count = count;
+    }
+    
+    /**
+     * Select the scenarios of this shard.
+     *
+     * @param scenarios all scenarios
+     * @param keyFunction function returning the {@link ScenarioDurations#key scenario key} of a scenario
+     * @param <T> scenario type
+     * @return scenarios of this shard, in their original order
+     */
+    public <T> List<T> select(List<T> scenarios, Function<T, String> keyFunction) {
+        if (count == 1) {
+            return scenarios;
+        }
+        
+        List<String> keys = scenarios.stream().map(keyFunction).collect(Collectors.toList());
+        long fallback = fallbackMillis(keys);
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < scenarios.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer>comparingLong(i -> durations.get(keys.get(i)).orElse(fallback)).reversed()
+                .thenComparing(keys::get));
+        
+        long[] load = new long[count];
+        Set<Integer> selected = new HashSet<>();
+        for (int i : order) {
+            int shard = 0;
+            for (int candidate = 1; candidate < count; candidate++) {
+                if (load[candidate] < load[shard]) {
+                    shard = candidate;
+                }
+            }
+            load[shard] += durations.get(keys.get(i)).orElse(fallback);
+            if (shard == index) {
+                selected.add(i);
+            }
+        }
+        
+        List<T> shardScenarios = new ArrayList<>();
+        for (int i = 0; i < scenarios.size(); i++) {
+            if (selected.contains(i)) {
+                shardScenarios.add(scenarios.get(i));
+            }
+        }
+        log.info("Shard {} of {}: {} of {} scenario(s), planned {} ms (shards {} ms)", index, count,
+                shardScenarios.size(), scenarios.size(), load[index], Arrays.toString(load));
+        return shardScenarios;
+    }
+    
+    /**
+     * Estimate for scenarios without history: the median of the known durations, or a default if none are known.
+     *
+     * @param keys scenario keys
+     * @return estimated duration in milliseconds
+     */
+    private long fallbackMillis(List<String> keys) {
+        List<Long> known = keys.stream()
+                .map(durations::get)
+                .flatMap(Optional::stream)
+                .sorted()
+                .collect(Collectors.toList());
+        return known.isEmpty() ? DEFAULT_MILLIS : known.get(known.size() / 2);
+    }
+}
@@ -0,0 +1,339 @@
+package com.ferrari.trace;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Command line tool summarising a trace written by {@link TraceRecorder}: time spent launching browsers,
+ * in waits and in commands, the slowest commands, and the steps making up each scenario with the
+ * slowest operation inside each step. Uses only the JDK, so it runs with just the compiled classes:
+ * {@code java -cp target/classes com.ferrari.trace.TraceAnalyzer target/trace.bin [top]}.
+ */
+public class TraceAnalyzer {
+    private static final int DEFAULT_TOP = 15;
+    
+    private final List<Event> events;
+    private final long startEpochMillis;
+    
+    /**
+     * One event read from the trace.
+     */
+    static class Event {
+        final TraceEventType type;
+        final String name;
+        final int thread;
+        final int scenario;
+        final long start;
+        final long duration;
+        
+        /**
+         * Constructor with the fields of an event record.
+         *
+         * @param type event type
+         * @param name event name
+         * @param thread id of the recording thread
+         * @param scenario scenario id, 0 outside scenarios
+         * @param start start in nanoseconds since the trace start
+         * @param duration duration in nanoseconds
+         */
+        Event(TraceEventType type, String name, int thread, int scenario, long start, long duration) {
+            this.type = type;
+            this.name = name;
+            this.thread = thread;
+            this.scenario = scenario;
+            this.start = start;
+            this.duration = duration;
+        }
+        
+        /**
+         * Get the end of the event.
+         *
+         * @return end in nanoseconds since the trace start
+         */
+        long end() {
+            return start + duration;
+        }
+        
+        /**
+         * Check whether another event ran inside this one on the same thread.
+         *
+         * @param other event to check
+         * @return true if other is nested in this event
+         */
+        boolean contains(Event other) {
+            return other.thread == thread && other.start >= start && other.end() <= end();
+        }
+    }
+    
+    /**
+     * Constructor reading a trace file.
+     *
+     * @param file trace file
+     * @throws IOException if the file cannot be read or is not a trace
+     */
+    public TraceAnalyzer(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < TraceRecorder.HEADER_SIZE || buffer.getInt() != TraceRecorder.MAGIC
+                || buffer.getInt() != TraceRecorder.VERSION) {
+            throw new IOException("Not a trace file: " + file);
+        }
+        this.startEpochMillis = buffer.getLong();
+        this.events = readEvents(buffer);
+    }
+    
+    /**
+     * Summarise a trace file.
+     *
+     * @param args trace file and optionally the number of slowest commands to list
+     * @throws IOException if the trace cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TraceAnalyzer <trace file> [top]");
+            System.exit(2);
+        }
+        int top = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TOP;
+        new TraceAnalyzer(Paths.get(args[0])).printSummary(System.out, top);
+    }
+    
+    /**
+     * Read the event records, resolving name ids. Stops at the first unknown record type,
+     * which marks the end of a trace that was not closed.
+     *
+     * @param buffer trace content positioned after the header
+     * @return events in recording order
+     */
+    private static List<Event> readEvents(ByteBuffer buffer) {
+        Map<Integer, String> names = new HashMap<>();
+        List<Event> events = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            TraceEventType type = TraceEventType.fromCode(buffer.get());
+            if (type == null) {
+                break;
+            }
+            if (type == TraceEventType.NAME) {
+                int id = buffer.getInt();
+                byte[] name = new byte[buffer.getShort()];
+                buffer.get(name);
+                names.put(id, new String(name, StandardCharsets.UTF_8));
+            } else {
+                String name = names.getOrDefault(buffer.getInt(), "?");
+                events.add(new Event(type, name, buffer.getInt(), buffer.getInt(), buffer.getLong(), buffer.getLong()));
+            }
+        }
+        return events;
+    }
+    
+    /**
+     * Print the summary.
+     *
+     * @param out stream to print to
+     * @param top number of slowest commands to list
+     */
+    public void printSummary(PrintStream out, int top) {
+        long span = events.stream().mapToLong(Event::end).max().orElse(0)
+                - events.stream().mapToLong(event -> event.start).min().orElse(0);
+        out.printf("Trace started %s, %d events over %.1f s%n%n", Instant.ofEpochMilli(startEpochMillis),
+                events.size(), seconds(span));
+        printTimeByActivity(out);
+        printSlowestCommands(out, top);
+        printScenarios(out);
+    }
+    
+    /**
+     * Print the time spent launching browsers, waiting and running commands.
+     * Commands issued while a wait polls are counted as wait time.
+     *
+     * @param out stream to print to
+     */
+    private void printTimeByActivity(PrintStream out) {
+        Map<TraceEventType, List<Event>> byType = byType();
+        List<Event> waits = byType.getOrDefault(TraceEventType.WAIT, List.of());
+        List<Event> commands = byType.getOrDefault(TraceEventType.COMMAND, List.of());
+        Map<Integer, List<Event>> waitsByThread = waits.stream()
+                .sorted(Comparator.comparingLong(event -> event.start))
+                .collect(Collectors.groupingBy(event -> event.thread));
+        List<Event> outsideWaits = commands.stream()
+                .filter(command -> !isInsideWait(command, waitsByThread.getOrDefault(command.thread, List.of())))
+                .collect(Collectors.toList());
+        
+        out.println("Time by activity");
+        printActivity(out, "Browser startup", byType.getOrDefault(TraceEventType.DRIVER_START, List.of()));
+        printActivity(out, "Waits", waits);
+        printActivity(out, "Commands outside waits", outsideWaits);
+        printActivity(out, "Steps", byType.getOrDefault(TraceEventType.STEP, List.of()));
+        printActivity(out, "Scenarios", byType.getOrDefault(TraceEventType.SCENARIO, List.of()));
+        out.println();
+    }
+    
+    /**
+     * Check whether a command ran inside a wait, by finding the last wait that started before it.
+     *
+     * @param command command event
+     * @param threadWaits waits of the command's thread, sorted by start
+     * @return true if the command was issued by a wait
+     */
+    private static boolean isInsideWait(Event command, List<Event> threadWaits) {
+        int low = 0;
+        int high = threadWaits.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (threadWaits.get(middle).start <= command.start) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high >= 0 && threadWaits.get(high).contains(command);
+    }
+    
+    /**
+     * Print the total time of a group of events.
+     *
+     * @param out stream to print to
+     * @param label activity label
+     * @param group events of the activity
+     */
+    private static void printActivity(PrintStream out, String label, List<Event> group) {
+        out.printf("  %-24s %10.2f s %8d events%n", label, seconds(total(group)), group.size());
+    }
+    
+    /**
+     * Print the commands with the highest total time.
+     *
+     * @param out stream to print to
+     * @param top number of commands to list
+     */
+    private void printSlowestCommands(PrintStream out, int top) {
+        Map<String, List<Event>> byName = events.stream()
+                .filter(event -> event.type == TraceEventType.COMMAND)
+                .collect(Collectors.groupingBy(event -> event.name));
+        
+        out.printf("Slowest commands (top %d by total time)%n", top);
+        out.printf("  %-44s %8s %10s %10s %10s%n", "Command", "Count", "Total ms", "Mean ms", "Max ms");
+        byName.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, List<Event>> entry) -> total(entry.getValue()))
+                        .reversed())
+                .limit(top)
+                .forEach(entry -> {
+                    List<Event> group = entry.getValue();
+                    long max = group.stream().mapToLong(event -> event.duration).max().orElse(0);
+                    out.printf("  %-44s %8d %10.1f %10.1f %10.1f%n", entry.getKey(), group.size(),
+                            millis(total(group)), millis(total(group) / group.size()), millis(max));
+                });
+        out.println();
+    }
+    
+    /**
+     * Print each scenario as the chain of its steps, with the slowest operation of each step
+     * and the time spent outside steps (hooks, browser startup).
+     *
+     * @param out stream to print to
+     */
+    private void printScenarios(PrintStream out) {
+        Map<Integer, List<Event>> byScenario = events.stream()
+                .filter(event -> event.scenario != 0)
+                .collect(Collectors.groupingBy(event -> event.scenario, TreeMap::new, Collectors.toList()));
+        
+        out.println("Scenarios (critical path)");
+        for (Map.Entry<Integer, List<Event>> entry : byScenario.entrySet()) {
+            List<Event> scenarioEvents = entry.getValue();
+            Event scenario = scenarioEvents.stream()
+                    .filter(event -> event.type == TraceEventType.SCENARIO)
+                    .findFirst()
+                    .orElse(null);
+            List<Event> steps = scenarioEvents.stream()
+                    .filter(event -> event.type == TraceEventType.STEP)
+                    .sorted(Comparator.comparingLong(event -> event.start))
+                    .collect(Collectors.toList());
+            long stepTime = total(steps);
+            
+            if (scenario != null) {
+                out.printf("  #%d %s: %.2f s (thread %d)%n", entry.getKey(), scenario.name,
+                        seconds(scenario.duration), scenario.thread);
+            } else {
+                out.printf("  #%d (not finished)%n", entry.getKey());
+            }
+            for (Event step : steps) {
+                out.printf("    %8.2f s  %-56s %s%n", seconds(step.duration), step.name,
+                        slowestInside(step, scenarioEvents));
+            }
+            if (scenario != null) {
+                out.printf("    %8.2f s  %s%n", seconds(scenario.duration - stepTime), "(outside steps: hooks, setup)");
+            }
+        }
+    }
+    
+    /**
+     * Describe the slowest wait, command or browser launch nested in an event.
+     *
+     * @param outer enclosing event
+     * @param candidates events that may be nested
+     * @return description, or an empty string if nothing is nested
+     */
+    private static String slowestInside(Event outer, List<Event> candidates) {
+        return candidates.stream()
+                .filter(event -> event != outer && event.type != TraceEventType.STEP
+                        && event.type != TraceEventType.SCENARIO && outer.contains(event))
+                .max(Comparator.comparingLong(event -> event.duration))
+                .map(event -> String.format("slowest: %s %s %.2f s", event.type, event.name, seconds(event.duration)))
+                .orElse("");
+    }
+    
+    /**
+     * Group the events by type.
+     *
+     * @return events by type
+     */
+    private Map<TraceEventType, List<Event>> byType() {
+        Map<TraceEventType, List<Event>> byType = new EnumMap<>(TraceEventType.class);
+        for (Event event : events) {
+            byType.computeIfAbsent(event.type, type -> new ArrayList<>()).add(event);
+        }
+        return byType;
+    }
+    
+    /**
+     * Sum the durations of events.
+     *
+     * @param group events
+     * @return total duration in nanoseconds
+     */
+    private static long total(List<Event> group) {
+        return group.stream().mapToLong(event -> event.duration).sum();
+    }
+    
+    /**
+     * Convert nanoseconds to seconds.
+     *
+     * @param nanos value in nanoseconds
+     * @return value in seconds
+     */
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+    
+    /**
+     * Convert nanoseconds to milliseconds.
+     *
+     * @param nanos value in nanoseconds
+     * @return value in milliseconds
+     */
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
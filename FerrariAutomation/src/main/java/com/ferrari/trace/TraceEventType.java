@@ -0,0 +1,67 @@
+package com.ferrari.trace;
+
+/**
+ * Enum representing the kinds of records in a trace file.
+ * The code of each type is the first byte of its records.
+ */
+public enum TraceEventType {
+    /**
+     * Defines the name behind a name id.
+     */
+    NAME(1),
+    /**
+     * A WebDriver, WebElement or navigation command.
+     */
+    COMMAND(2),
+    /**
+     * An explicit wait.
+     */
+    WAIT(3),
+    /**
+     * A Cucumber step.
+     */
+    STEP(4),
+    /**
+     * A whole scenario.
+     */
+    SCENARIO(5),
+    /**
+     * Launching a browser session.
+     */
+    DRIVER_START(6);
+    
+    private final byte code;
+    
+    /**
+     * Constructor with the record type code.
+     *
+     * @param code first byte of the records
+     */
+    TraceEventType(int code) {
+        this.code = (byte) code;
+    }
+    
+    /**
+     * Get the record type code.
+     *
+     * @return first byte of the records
+     */
+    public byte getCode() {
+        return code;
+    }
+    
+    /**
+     * Convert a record type code to the corresponding event type.
+     *
+     * @param code first byte of a record
+     * @return the matching TraceEventType, or null for an unknown code or the end of the trace
+     */
+    public static TraceEventType fromCode(byte code) {
+        for (TraceEventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
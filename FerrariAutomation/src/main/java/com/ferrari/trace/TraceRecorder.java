@@ -0,0 +1,205 @@
+package com.ferrari.trace;
+
+import com.ferrari.config.ConfigurationManager;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records commands, waits, steps and browser launches into a compact binary trace file.
+ * Records are appended to a memory-mapped window of the file that is moved forward when it is full,
+ * so recording is a few buffer writes without a system call. Enabled with {@code trace.enabled};
+ * when disabled every recording method returns immediately.
+ *
+ * <p>File layout: magic, version and the wall-clock start time in epoch milliseconds, followed by
+ * records. A name record is {@code type id length bytes}; an event record is
+ * {@code type nameId threadId scenarioId startNanos durationNanos}, with the start relative to the
+ * trace start. A name record always precedes the first event using it. Read it with {@link TraceAnalyzer}.
+ */
+@Log4j2
+public class TraceRecorder {
+    static final int MAGIC = 0x46545243; // "FTRC"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    private static final int WINDOW_SIZE = 8 * 1024 * 1024;
+    private static final int EVENT_SIZE = 29;
+    
+    private static final TraceRecorder RECORDER = create(ConfigurationManager.getInstance());
+    private static final AtomicInteger SCENARIO_IDS = new AtomicInteger();
+    private static final ThreadLocal<Integer> SCENARIO = ThreadLocal.withInitial(() -> 0);
+    
+    private final Path file;
+    private final FileChannel channel;
+    private final long baseNanos = System.nanoTime();
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private MappedByteBuffer window;
+    private long windowStart;
+    private boolean closed;
+    
+    /**
+     * Constructor creating the trace file.
+     *
+     * @param file trace file, replaced if it exists
+     * @throws IOException if the file cannot be created
+     */
+    TraceRecorder(Path file) throws IOException {
+        this.file = file;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.window = channel.map(FileChannel.MapMode.READ_WRITE, 0, WINDOW_SIZE);
+        window.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis());
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "trace-recorder-close"));
+    }
+    
+    /**
+     * Create the recorder from configuration.
+     *
+     * @param configManager ConfigurationManager instance
+     * @return TraceRecorder instance, or null if tracing is disabled or the file cannot be created
+     */
+    private static TraceRecorder create(ConfigurationManager configManager) {
+        if (!configManager.isTraceEnabled()) {
+            return null;
+        }
+        try {
+            TraceRecorder recorder = new TraceRecorder(Paths.get(configManager.getTraceFile()));
+            log.info("Recording trace to {}", configManager.getTraceFile());
+            return recorder;
+        } catch (IOException e) {
+            log.error("Could not create trace file {}: {}", configManager.getTraceFile(), e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Check whether tracing is enabled.
+     *
+     * @return true if events are recorded
+     */
+    public static boolean isEnabled() {
+        return RECORDER != null;
+    }
+    
+    /**
+     * Get a timestamp to pass to {@link #record} as start time.
+     *
+     * @return current {@link System#nanoTime()}
+     */
+    public static long now() {
+        return System.nanoTime();
+    }
+    
+    /**
+     * Record an event that started at {@code startNanos} and has just finished.
+     *
+     * @param type event type
+     * @param name command, wait, step or scenario name
+     * @param startNanos {@link System#nanoTime()} at the start of the event
+     */
+    public static void record(TraceEventType type, String name, long startNanos) {
+        if (RECORDER != null) {
+            RECORDER.append(type, name, startNanos, System.nanoTime() - startNanos);
+        }
+    }
+    
+    /**
+     * Mark the current thread as running a new scenario; later events are attributed to it.
+     *
+     * @return scenario id
+     */
+    public static int startScenario() {
+        int id = SCENARIO_IDS.incrementAndGet();
+        SCENARIO.set(id);
+        return id;
+    }
+    
+    /**
+     * Record the end of the scenario running on the current thread.
+     *
+     * @param name scenario name
+     * @param startNanos {@link System#nanoTime()} at the start of the scenario
+     */
+    public static void finishScenario(String name, long startNanos) {
+        record(TraceEventType.SCENARIO, name, startNanos);
+        SCENARIO.set(0);
+    }
+    
+    /**
+     * Append an event record, preceded by a name record the first time the name is used.
+     *
+     * @param type event type
+     * @param name event name
+     * @param startNanos {@link System#nanoTime()} at the start of the event
+     * @param durationNanos event duration
+     */
+    private synchronized void append(TraceEventType type, String name, long startNanos, long durationNanos) {
+        if (closed) {
+            return;
+        }
+        try {
+            Integer nameId = nameIds.get(name);
+            if (nameId == null) {
+                nameId = nameIds.size() + 1;
+                nameIds.put(name, nameId);
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                int length = Math.min(bytes.length, Short.MAX_VALUE);
+                ensureCapacity(7 + length);
+                window.put(TraceEventType.NAME.getCode()).putInt(nameId).putShort((short) length).put(bytes, 0, length);
+            }
+            ensureCapacity(EVENT_SIZE);
+            window.put(type.getCode())
+                    .putInt(nameId)
+                    .putInt((int) Thread.currentThread().getId())
+                    .putInt(SCENARIO.get())
+                    .putLong(startNanos - baseNanos)
+                    .putLong(durationNanos);
+        } catch (IOException e) {
+            log.error("Trace recording stopped, could not extend {}: {}", file, e.getMessage());
+            closed = true;
+        }
+    }
+    
+    /**
+     * Move the mapped window forward when the next record does not fit in it.
+     *
+     * @param bytes size of the next record
+     * @throws IOException if the file cannot be mapped
+     */
+    private void ensureCapacity(int bytes) throws IOException {
+        if (window.remaining() < bytes) {
+            windowStart += window.position();
+            window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, WINDOW_SIZE);
+        }
+    }
+    
+    /**
+     * Flush the trace and cut the file at the last record.
+     */
+    synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            window.force();
+            channel.truncate(windowStart + window.position());
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close trace file {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ferrari.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+
+/**
+ * Utility class for looking behind the decorators of a driver, such as the command metrics listener.
+ */
+public class Drivers {
+    
+    private Drivers() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Get the browser session behind decorating drivers.
+     *
+     * @param driver WebDriver instance, possibly decorated
+     * @return innermost WebDriver
+     */
+    public static WebDriver unwrap(WebDriver driver) {
+        WebDriver session = driver;
+        while (session instanceof WrapsDriver) {
+            session = ((WrapsDriver) session).getWrappedDriver();
+        }
+        return session;
+    }
+}
@@ -8,6 +8,7 @@ import java.util.Properties;
 
 /**
  * Utility class for reading properties from config files.
+ * A system property with the same key (e.g. {@code -Dbrowser=chrome}) overrides the file.
  */
 @Log4j2
 public class PropertyReader {
@@ -45,7 +46,7 @@ public class PropertyReader {
      * @return the property value or null if not found
      */
     public static String getProperty(String key) {
-        return properties.getProperty(key);
+        return System.getProperty(key, properties.getProperty(key));
     }
     
     /**
@@ -56,7 +57,8 @@ public class PropertyReader {
      * @return the property value or the default value if not found
      */
     public static String getProperty(String key, String defaultValue) {
-        return properties.getProperty(key, defaultValue);
+        String value = getProperty(key);
+        return value != null ? value : defaultValue;
     }
     
     /**
@@ -95,4 +97,25 @@ public class PropertyReader {
         
         return Boolean.parseBoolean(value);
     }
+    
+    /**
+     * Get a property as a double.
+     *
+     * @param key the property key
+     * @param defaultValue the default value to return if key not found or not a valid number
+     * @return the property value as a double or the default value
+     */
+    public static double getDoubleProperty(String key, double defaultValue) {
+        String value = getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            log.warn("Failed to parse property '{}' as number, using default value: {}", key, defaultValue);
+            return defaultValue;
+        }
+    }
 }
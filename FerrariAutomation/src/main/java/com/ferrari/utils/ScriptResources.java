@@ -0,0 +1,33 @@
+package com.ferrari.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Utility class for loading JavaScript snippets bundled with the framework.
+ */
+public class ScriptResources {
+    
+    private ScriptResources() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Load a script from the classpath.
+     *
+     * @param resource classpath location of the script, e.g. {@code js/wait-for-condition.js}
+     * @return script source
+     */
+    public static String load(String resource) {
+        try (InputStream inputStream = ScriptResources.class.getClassLoader().getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("Script '" + resource + "' not found in the classpath");
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load script " + resource, e);
+        }
+    }
+}
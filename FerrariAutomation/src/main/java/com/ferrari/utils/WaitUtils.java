@@ -1,26 +1,88 @@
 package com.ferrari.utils;
 
+import com.ferrari.config.ConfigurationManager;
 import com.ferrari.constants.TimeoutConstants;
+import com.ferrari.constants.WaitMode;
+import com.ferrari.trace.TraceEventType;
+import com.ferrari.trace.TraceRecorder;
+import com.ferrari.waits.AdaptiveWaitStrategy;
+import com.ferrari.waits.EventWaitStrategy;
+import com.ferrari.waits.PollingWaitStrategy;
+import com.ferrari.waits.WaitCondition;
+import com.ferrari.waits.WaitHistory;
+import com.ferrari.waits.WaitStrategy;
 import lombok.extern.log4j.Log4j2;
-import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedCondition;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.List;
 
 /**
  * Utility class for Selenium wait operations.
+ * Every wait is delegated to the configured {@link WaitStrategy}: polling with backoff,
+ * or in-browser waits in {@link WaitMode#EVENT} mode. Implicit waits are disabled by
+ * {@code DriverManager}, so the strategy alone decides how long a wait takes.
  */
 @Log4j2
 public class WaitUtils {
+    private static volatile WaitStrategy waitStrategy;
     
     private WaitUtils() {
         // Private constructor to prevent instantiation
     }
     
+    /**
+     * Get the wait strategy, creating it from configuration on first use.
+     *
+     * @return WaitStrategy in use
+     */
+    public static WaitStrategy getWaitStrategy() {
+        if (waitStrategy == null) {
+            synchronized (WaitUtils.class) {
+                if (waitStrategy == null) {
+                    waitStrategy = createWaitStrategy(ConfigurationManager.getInstance());
+                }
+            }
+        }
+        return waitStrategy;
+    }
+    
+    /**
+     * Replace the wait strategy used by all waits.
+     *
+     * @param strategy WaitStrategy to use
+     */
+    public static void setWaitStrategy(WaitStrategy strategy) {
+        waitStrategy = strategy;
+    }
+    
+    /**
+     * Wait for a condition using the configured wait strategy.
+     *
+     * @param driver WebDriver instance
+     * @param condition condition to wait for
+     * @param timeout Wait timeout duration
+     * @param <T> Type of the expected result
+     * @return Result of the condition
+     */
+    public static <T> T await(WebDriver driver, WaitCondition<T> condition, Duration timeout) {
+        if (!TraceRecorder.isEnabled()) {
+            return getWaitStrategy().await(driver, condition, timeout);
+        }
+        long start = TraceRecorder.now();
+        try {
+            return getWaitStrategy().await(driver, condition, timeout);
+        } finally {
+            TraceRecorder.record(TraceEventType.WAIT,
+                    condition.getName() != null ? condition.getName() : condition.getDescription(), start);
+        }
+    }
+    
     /**
      * Wait for an element to be visible.
      *
@@ -31,8 +93,7 @@ public class WaitUtils {
      */
     public static WebElement waitForElementVisible(WebDriver driver, WebElement element, Duration timeout) {
         log.debug("Waiting for element to be visible with timeout: {}", timeout);
-        return new WebDriverWait(driver, timeout)
-                .until(ExpectedConditions.visibilityOf(element));
+        return await(driver, WaitCondition.visible(element), timeout);
     }
     
     /**
@@ -56,8 +117,7 @@ public class WaitUtils {
      */
     public static WebElement waitForElementClickable(WebDriver driver, WebElement element, Duration timeout) {
         log.debug("Waiting for element to be clickable with timeout: {}", timeout);
-        return new WebDriverWait(driver, timeout)
-                .until(ExpectedConditions.elementToBeClickable(element));
+        return await(driver, WaitCondition.clickable(element), timeout);
     }
     
     /**
@@ -71,6 +131,32 @@ public class WaitUtils {
         return waitForElementClickable(driver, element, TimeoutConstants.MEDIUM_WAIT);
     }
     
+    /**
+     * Check that an element is missing or hidden, returning as soon as it is.
+     *
+     * @param driver WebDriver instance
+     * @param element WebElement expected to be absent
+     * @param timeout maximum time to wait for the element to go away
+     * @return true if the element is absent, false if it is still displayed after the timeout
+     */
+    public static boolean isElementAbsent(WebDriver driver, WebElement element, Duration timeout) {
+        log.debug("Checking element is absent with timeout: {}", timeout);
+        return isMet(driver, WaitCondition.absent(element), timeout);
+    }
+    
+    /**
+     * Check that no displayed element matches a locator, returning as soon as none does.
+     *
+     * @param driver WebDriver instance
+     * @param locator locator expected to match nothing visible
+     * @param timeout maximum time to wait for the elements to go away
+     * @return true if nothing visible matches, false otherwise after the timeout
+     */
+    public static boolean isElementAbsent(WebDriver driver, By locator, Duration timeout) {
+        log.debug("Checking {} is absent with timeout: {}", locator, timeout);
+        return isMet(driver, WaitCondition.absent(locator), timeout);
+    }
+    
     /**
      * Wait for the page to be fully loaded.
      *
@@ -79,9 +165,7 @@ public class WaitUtils {
      */
     public static void waitForPageLoad(WebDriver driver, Duration timeout) {
         log.debug("Waiting for page to load with timeout: {}", timeout);
-        new WebDriverWait(driver, timeout).until(
-                driver1 -> ((JavascriptExecutor) driver1)
-                        .executeScript("return document.readyState").equals("complete"));
+        await(driver, WaitCondition.pageLoaded(), timeout);
     }
     
     /**
@@ -102,8 +186,7 @@ public class WaitUtils {
      */
     public static void waitForUrlToContain(WebDriver driver, String urlText, Duration timeout) {
         log.debug("Waiting for URL to contain '{}' with timeout: {}", urlText, timeout);
-        new WebDriverWait(driver, timeout)
-                .until(ExpectedConditions.urlContains(urlText));
+        await(driver, WaitCondition.urlContains(urlText), timeout);
     }
     
     /**
@@ -115,8 +198,35 @@ public class WaitUtils {
      */
     public static void waitForUrlToBe(WebDriver driver, String url, Duration timeout) {
         log.debug("Waiting for URL to be '{}' with timeout: {}", url, timeout);
-        new WebDriverWait(driver, timeout)
-                .until(ExpectedConditions.urlToBe(url));
+        await(driver, WaitCondition.urlToBe(url), timeout);
+    }
+    
+    /**
+     * Wait until any of several conditions holds, evaluating them together in one wait.
+     *
+     * @param driver WebDriver instance
+     * @param timeout Wait timeout duration
+     * @param conditions alternative conditions
+     * @return the condition that matched first
+     */
+    public static WaitCondition<?> waitForAny(WebDriver driver, Duration timeout, WaitCondition<?>... conditions) {
+        log.debug("Waiting for any of {} conditions with timeout: {}", conditions.length, timeout);
+        WaitCondition<?> matched = await(driver, WaitCondition.anyOf(conditions), timeout);
+        log.debug("Wait matched: {}", matched);
+        return matched;
+    }
+    
+    /**
+     * Wait until all of several conditions hold, evaluating them together in one wait.
+     *
+     * @param driver WebDriver instance
+     * @param timeout Wait timeout duration
+     * @param conditions conditions that must all hold
+     * @return results of the conditions, in order
+     */
+    public static List<Object> waitForAll(WebDriver driver, Duration timeout, WaitCondition<?>... conditions) {
+        log.debug("Waiting for all of {} conditions with timeout: {}", conditions.length, timeout);
+        return await(driver, WaitCondition.allOf(conditions), timeout);
     }
     
     /**
@@ -130,6 +240,45 @@ public class WaitUtils {
      */
     public static <T> T waitFor(WebDriver driver, ExpectedCondition<T> condition, Duration timeout) {
         log.debug("Waiting for custom condition with timeout: {}", timeout);
-        return new WebDriverWait(driver, timeout).until(condition);
+        return await(driver, WaitCondition.of(condition.toString(), condition), timeout);
+    }
+    
+    /**
+     * Check whether a condition holds within a timeout, without throwing.
+     *
+     * @param driver WebDriver instance
+     * @param condition condition to check
+     * @param timeout maximum time to wait
+     * @return true if the condition held in time
+     */
+    private static boolean isMet(WebDriver driver, WaitCondition<Boolean> condition, Duration timeout) {
+        try {
+            return await(driver, condition, timeout);
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Build the wait strategy described by the configuration.
+     *
+     * @param configManager ConfigurationManager instance
+     * @return WaitStrategy instance
+     */
+    private static WaitStrategy createWaitStrategy(ConfigurationManager configManager) {
+        WaitStrategy polling = new PollingWaitStrategy(
+                Duration.ofMillis(configManager.getPollInitialMillis()),
+                Duration.ofMillis(configManager.getPollMaxMillis()),
+                configManager.getPollMultiplier());
+        log.info("Using {} wait strategy", configManager.getWaitMode());
+        WaitStrategy strategy = configManager.getWaitMode() == WaitMode.EVENT ? new EventWaitStrategy(polling) : polling;
+        
+        if (configManager.isAdaptiveTimeouts()) {
+            WaitHistory history = new WaitHistory(Paths.get(configManager.getWaitHistoryFile()));
+            Runtime.getRuntime().addShutdownHook(new Thread(history::save, "wait-history-writer"));
+            strategy = new AdaptiveWaitStrategy(strategy, history, configManager.getAdaptivePercentile(),
+                    Duration.ofMillis(configManager.getAdaptiveMarginMillis()), configManager.getAdaptiveMinSamples());
+        }
+        return strategy;
     }
 }
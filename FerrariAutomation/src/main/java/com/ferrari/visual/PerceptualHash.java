@@ -0,0 +1,57 @@
+package com.ferrari.visual;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Utility class computing 64-bit difference hashes (dHash) of images.
+ * The image is scaled down to 9x8 grayscale pixels and each bit tells whether a pixel is brighter
+ * than its right neighbour, so the hash survives compression noise and small rendering differences.
+ */
+public class PerceptualHash {
+    private static final int WIDTH = 9;
+    private static final int HEIGHT = 8;
+    
+    private PerceptualHash() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Compute the difference hash of an image.
+     *
+     * @param image image to hash
+     * @return 64-bit hash
+     */
+    public static long of(BufferedImage image) {
+        BufferedImage small = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D graphics = small.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, WIDTH, HEIGHT, null);
+        } finally {
+            graphics.dispose();
+        }
+        
+        long hash = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH - 1; x++) {
+                int left = small.getRaster().getSample(x, y, 0);
+                int right = small.getRaster().getSample(x + 1, y, 0);
+                hash = (hash << 1) | (left > right ? 1 : 0);
+            }
+        }
+        return hash;
+    }
+    
+    /**
+     * Count the bits that differ between two hashes.
+     *
+     * @param first first hash
+     * @param second second hash
+     * @return Hamming distance, 0 for identical hashes
+     */
+    public static int distance(long first, long second) {
+        return Long.bitCount(first ^ second);
+    }
+}
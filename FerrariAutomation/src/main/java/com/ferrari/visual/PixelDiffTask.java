@@ -0,0 +1,152 @@
+package com.ferrari.visual;
+
+import java.awt.Rectangle;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join task counting the pixels that differ between two images of the same size.
+ * The region is split in halves along its longer side until it is one tile, and tiles are compared
+ * in parallel. Pixels inside a mask are ignored, and pixels whose channels all differ by no more
+ * than the tolerance count as equal. Differing pixels are marked in a shared diff buffer;
+ * tiles never overlap, so tasks write disjoint parts of it.
+ */
+public class PixelDiffTask extends RecursiveTask<Long> {
+    private static final int TILE_PIXELS = 128 * 128;
+    
+    /**
+     * Colour of differing pixels in the diff buffer.
+     */
+    public static final int DIFF_COLOR = 0xFFFF0000;
+    
+    private final int[] expected;
+    private final int[] actual;
+    private final int[] diff;
+    private final int width;
+    private final List<Rectangle> masks;
+    private final int tolerance;
+    private final Rectangle region;
+    
+    /**
+     * Constructor for the whole image or a region of it.
+     *
+     * @param expected baseline pixels, row by row
+     * @param actual current pixels, row by row
+     * @param diff buffer receiving {@link #DIFF_COLOR} for differing pixels
+     * @param width image width
+     * @param masks regions to ignore
+     * @param tolerance largest channel difference still counted as equal
+     * @param region region to compare
+     */
+    public PixelDiffTask(int[] expected, int[] actual, int[] diff, int width,
+                         List<Rectangle> masks, int tolerance, Rectangle region) {
+        this.expected = expected;
+        this.actual = actual;
+        this.diff = diff;
+        this.width = width;
+        this.masks = masks;
+        this.tolerance = tolerance;
+        this.region = region;
+    }
+    
+    /**
+     * Compare the region, splitting it when it is larger than a tile.
+     *
+     * @return number of differing pixels in the region
+     */
+    @Override
+    protected Long compute() {
+        if (region.width * region.height <= TILE_PIXELS) {
+            return compareTile();
+        }
+        
+        Rectangle first;
+        Rectangle second;
+        if (region.width >= region.height) {
+            int half = region.width / 2;
+            first = new Rectangle(region.x, region.y, half, region.height);
+            second = new Rectangle(region.x + half, region.y, region.width - half, region.height);
+        } else {
+            int half = region.height / 2;
+            first = new Rectangle(region.x, region.y, region.width, half);
+            second = new Rectangle(region.x, region.y + half, region.width, region.height - half);
+        }
+        PixelDiffTask left = subtask(first);
+        left.fork();
+        long right = subtask(second).compute();
+        return left.join() + right;
+    }
+    
+    /**
+     * Create the task for a part of the region.
+     *
+     * @param part part of the region
+     * @return PixelDiffTask instance
+     */
+    private PixelDiffTask subtask(Rectangle part) {
+        return new PixelDiffTask(expected, actual, diff, width, masks, tolerance, part);
+    }
+    
+    /**
+     * Compare the pixels of one tile.
+     *
+     * @return number of differing pixels in the tile
+     */
+    private long compareTile() {
+        for (Rectangle mask : masks) {
+            if (mask.contains(region)) {
+                return 0;
+            }
+        }
+        boolean masked = masks.stream().anyMatch(mask -> mask.intersects(region));
+        
+        long different = 0;
+        for (int y = region.y; y < region.y + region.height; y++) {
+            int row = y * width;
+            for (int x = region.x; x < region.x + region.width; x++) {
+                int index = row + x;
+                if (expected[index] == actual[index] || withinTolerance(expected[index], actual[index])) {
+                    continue;
+                }
+                if (masked && isMasked(x, y)) {
+                    continue;
+                }
+                diff[index] = DIFF_COLOR;
+                different++;
+            }
+        }
+        return different;
+    }
+    
+    /**
+     * Check whether two pixels differ by no more than the tolerance in every channel.
+     *
+     * @param first first ARGB pixel
+     * @param second second ARGB pixel
+     * @return true if the pixels count as equal
+     */
+    private boolean withinTolerance(int first, int second) {
+        for (int shift = 0; shift < 32; shift += 8) {
+            if (Math.abs(((first >>> shift) & 0xFF) - ((second >>> shift) & 0xFF)) > tolerance) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Check whether a pixel lies in a mask.
+     *
+     * @param x pixel column
+     * @param y pixel row
+     * @return true if the pixel is ignored
+     */
+    private boolean isMasked(int x, int y) {
+        for (Rectangle mask : masks) {
+            if (mask.contains(x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,246 @@
+package com.ferrari.visual;
+
+import com.ferrari.config.ConfigurationManager;
+import lombok.extern.log4j.Log4j2;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Compares screenshots with stored baselines.
+ * The perceptual hashes are compared first; only when they differ is the full pixel diff run,
+ * over tiles in parallel on the common fork/join pool. Baselines are only created or replaced
+ * when updating baselines; otherwise a missing baseline fails the check. Baseline hashes are
+ * kept next to the baselines, so the common case never decodes them.
+ */
+@Log4j2
+@Singleton
+public class VisualChecker {
+    private final Path baselineDir;
+    private final int hashThreshold;
+    private final int pixelTolerance;
+    private final double maxDiffRatio;
+    private final boolean updateBaselines;
+    private final Map<Path, Long> baselineHashes = new ConcurrentHashMap<>();
+    
+    /**
+     * Constructor with ConfigurationManager dependency.
+     *
+     * @param configManager ConfigurationManager instance
+     */
+    @Inject
+    public VisualChecker(ConfigurationManager configManager) {
+        this(Paths.get(configManager.getVisualBaselineDir()), configManager.getVisualHashThreshold(),
+                configManager.getVisualPixelTolerance(), configManager.getVisualMaxDiffRatio(),
+                configManager.isVisualUpdateBaselines());
+    }
+    
+    /**
+     * Constructor with comparison settings.
+     *
+     * @param baselineDir directory of the baseline images
+     * @param hashThreshold largest hash distance treated as a match without a pixel diff
+     * @param pixelTolerance largest channel difference still counted as equal
+     * @param maxDiffRatio largest share of differing pixels still treated as a match
+     * @param updateBaselines whether to replace baselines with the new screenshots
+     */
+    public VisualChecker(Path baselineDir, int hashThreshold, int pixelTolerance,
+                         double maxDiffRatio, boolean updateBaselines) {
+        this.baselineDir = baselineDir;
+        this.hashThreshold = hashThreshold;
+        this.pixelTolerance = pixelTolerance;
+        this.maxDiffRatio = maxDiffRatio;
+        this.updateBaselines = updateBaselines;
+    }
+    
+    /**
+     * Compare a screenshot with its baseline.
+     *
+     * @param name baseline name, e.g. {@code FerrariSF90Page.modelBanner-chrome}
+     * @param screenshot PNG screenshot
+     * @param masks regions to ignore in the pixel diff
+     * @return VisualResult instance
+     */
+    public VisualResult check(String name, byte[] screenshot, List<Rectangle> masks) {
+        Path baseline = baselineDir.resolve(name.replaceAll("[^A-Za-z0-9._-]", "_") + ".png");
+        BufferedImage actual = decode(screenshot);
+        long actualHash = PerceptualHash.of(actual);
+        
+        if (updateBaselines) {
+            saveBaseline(baseline, screenshot, actualHash);
+            log.info("Stored visual baseline {}", baseline);
+            return new VisualResult(name, true, true, false, 0, 0, 0, null);
+        }
+        if (!Files.exists(baseline)) {
+            log.error("Visual baseline {} is missing; record it with -Dvisual.updateBaselines=true", baseline);
+            return new VisualResult(name, false, false, true, 0, 0, 1, screenshot);
+        }
+        
+        int distance = PerceptualHash.distance(actualHash, baselineHash(baseline));
+        if (distance <= hashThreshold) {
+            return new VisualResult(name, true, false, false, distance, 0, 0, null);
+        }
+        
+        BufferedImage expected = decode(read(baseline));
+        if (expected.getWidth() != actual.getWidth() || expected.getHeight() != actual.getHeight()) {
+            log.warn("Screenshot {} is {}x{}, baseline is {}x{}", name, actual.getWidth(), actual.getHeight(),
+                    expected.getWidth(), expected.getHeight());
+            return new VisualResult(name, false, false, false, distance, (long) actual.getWidth() * actual.getHeight(),
+                    1, screenshot);
+        }
+        return diff(name, distance, expected, actual, masks);
+    }
+    
+    /**
+     * Run the tiled pixel diff of two images of the same size.
+     *
+     * @param name baseline name
+     * @param distance perceptual hash distance
+     * @param expected baseline image
+     * @param actual screenshot image
+     * @param masks regions to ignore
+     * @return VisualResult instance
+     */
+    private VisualResult diff(String name, int distance, BufferedImage expected, BufferedImage actual,
+                              List<Rectangle> masks) {
+        int width = actual.getWidth();
+        int height = actual.getHeight();
+        int[] expectedPixels = expected.getRGB(0, 0, width, height, null, 0, width);
+        int[] actualPixels = actual.getRGB(0, 0, width, height, null, 0, width);
+        int[] diffPixels = new int[expectedPixels.length];
+        
+        long different = ForkJoinPool.commonPool().invoke(new PixelDiffTask(expectedPixels, actualPixels, diffPixels,
+                width, masks, pixelTolerance, new Rectangle(0, 0, width, height)));
+        double ratio = (double) different / ((long) width * height);
+        boolean matched = ratio <= maxDiffRatio;
+        log.info("Visual check {}: hash distance {}, {} different pixels ({}%)", name, distance, different,
+                String.format("%.3f", ratio * 100));
+        if (matched) {
+            return new VisualResult(name, true, false, false, distance, different, ratio, null);
+        }
+        
+        for (int i = 0; i < actualPixels.length; i++) {
+            if (diffPixels[i] != 0) {
+                actualPixels[i] = diffPixels[i];
+            }
+        }
+        BufferedImage diffImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        diffImage.setRGB(0, 0, width, height, actualPixels, 0, width);
+        return new VisualResult(name, false, false, false, distance, different, ratio, encode(diffImage));
+    }
+    
+    /**
+     * Get the perceptual hash of a baseline, from memory or from the hash file next to it.
+     *
+     * @param baseline baseline image
+     * @return perceptual hash
+     */
+    private long baselineHash(Path baseline) {
+        return baselineHashes.computeIfAbsent(baseline, path -> {
+            Path hashFile = hashFile(path);
+            try {
+                if (Files.exists(hashFile)
+                        && Files.getLastModifiedTime(hashFile).compareTo(Files.getLastModifiedTime(path)) >= 0) {
+                    return Long.parseUnsignedLong(Files.readString(hashFile, StandardCharsets.UTF_8).trim(), 16);
+                }
+                long hash = PerceptualHash.of(decode(read(path)));
+                Files.writeString(hashFile, Long.toHexString(hash), StandardCharsets.UTF_8);
+                return hash;
+            } catch (IOException | NumberFormatException e) {
+                log.debug("Hashing baseline {} again: {}", path, e.getMessage());
+                return PerceptualHash.of(decode(read(path)));
+            }
+        });
+    }
+    
+    /**
+     * Store a screenshot as baseline, together with its hash.
+     *
+     * @param baseline baseline image
+     * @param screenshot PNG screenshot
+     * @param hash perceptual hash of the screenshot
+     */
+    private void saveBaseline(Path baseline, byte[] screenshot, long hash) {
+        try {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.write(baseline, screenshot);
+            Files.writeString(hashFile(baseline), Long.toHexString(hash), StandardCharsets.UTF_8);
+            baselineHashes.put(baseline, hash);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store visual baseline " + baseline, e);
+        }
+    }
+    
+    /**
+     * Get the hash file of a baseline.
+     *
+     * @param baseline baseline image
+     * @return hash file path
+     */
+    private static Path hashFile(Path baseline) {
+        return baseline.resolveSibling(baseline.getFileName() + ".phash");
+    }
+    
+    /**
+     * Read a file.
+     *
+     * @param file file to read
+     * @return file content
+     */
+    private static byte[] read(Path file) {
+        try {
+            return Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+    }
+    
+    /**
+     * Decode a PNG.
+     *
+     * @param png PNG bytes
+     * @return decoded image
+     */
+    private static BufferedImage decode(byte[] png) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                throw new IllegalArgumentException("Not an image");
+            }
+            return image;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode image", e);
+        }
+    }
+    
+    /**
+     * Encode an image as PNG.
+     *
+     * @param image image to encode
+     * @return PNG bytes
+     */
+    private static byte[] encode(BufferedImage image) {
+        try {
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", png);
+            return png.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode image", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ferrari.visual;
+
+import lombok.Value;
+
+/**
+ * Outcome of comparing a screenshot with its baseline.
+ */
+@Value
+public class VisualResult {
+    String name;
+    
+    boolean matched;
+    
+    /**
+     * True when no baseline existed and the screenshot was stored as the new baseline.
+     */
+    boolean baselineCreated;
+    
+    /**
+     * True when no baseline exists and baselines are not being updated, so nothing was compared.
+     */
+    boolean baselineMissing;
+    
+    /**
+     * Hamming distance between the perceptual hashes of screenshot and baseline.
+     */
+    int hashDistance;
+    
+    /**
+     * Number of differing pixels, 0 when the hashes matched and no pixel diff was needed.
+     */
+    long differentPixels;
+    
+    /**
+     * Share of differing pixels, 1 when the sizes differ.
+     */
+    double differentRatio;
+    
+    /**
+     * PNG with the differing pixels marked (the screenshot itself when the baseline is missing),
+     * or null if the screenshot matched.
+     */
+    byte[] diffImage;
+}
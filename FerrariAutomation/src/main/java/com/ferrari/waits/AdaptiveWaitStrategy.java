@@ -0,0 +1,81 @@
+package com.ferrari.waits;
+
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+
+/**
+ * Wait strategy that shortens the timeout of named waits based on how long they took before.
+ * The timeout of a named wait is a high percentile of its recorded durations plus a safety
+ * margin, never more than the timeout the caller asked for. Only successful waits are recorded,
+ * so waits that are expected to time out do not inflate the percentile. Waits without a name,
+ * or without enough history, use the caller's timeout unchanged.
+ */
+@Log4j2
+public class AdaptiveWaitStrategy implements WaitStrategy {
+    private final WaitStrategy delegate;
+    private final WaitHistory history;
+    private final double percentile;
+    private final Duration margin;
+    private final int minSamples;
+    
+    /**
+     * Constructor with the strategy doing the actual waiting and the adaptation settings.
+     *
+     * @param delegate strategy used to wait
+     * @param history recorded wait durations
+     * @param percentile percentile of the recorded durations used as the base timeout
+     * @param margin safety margin added to the percentile
+     * @param minSamples number of recorded durations needed before adapting a timeout
+     */
+    public AdaptiveWaitStrategy(WaitStrategy delegate, WaitHistory history, double percentile,
+                                Duration margin, int minSamples) {
+        this.delegate = delegate;
+        this.history = history;
+        this.percentile = percentile;
+        this.margin = margin;
+        this.minSamples = minSamples;
+    }
+    
+    @Override
+    public <T> T await(WebDriver driver, WaitCondition<T> condition, Duration timeout) {
+        String name = condition.getName();
+        if (name == null) {
+            return delegate.await(driver, condition, timeout);
+        }
+        
+        Duration adapted = timeoutFor(name, timeout);
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = delegate.await(driver, condition, adapted);
+        } catch (TimeoutException e) {
+            if (!adapted.equals(timeout)) {
+                log.info("{} timed out at its adaptive timeout of {} (static timeout {})", name, adapted, timeout);
+            }
+            throw e;
+        }
+        history.record(name, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        return result;
+    }
+    
+    /**
+     * Get the timeout to use for a named wait.
+     *
+     * @param name wait name
+     * @param fallback timeout used when there is not enough history, and upper bound otherwise
+     * @return adapted timeout
+     */
+    public Duration timeoutFor(String name, Duration fallback) {
+        return history.percentile(name, percentile, minSamples)
+                .map(millis -> Duration.ofMillis(millis).plus(margin))
+                .filter(adapted -> adapted.compareTo(fallback) < 0)
+                .map(adapted -> {
+                    log.debug("Using adaptive timeout {} instead of {} for {}", adapted, fallback, name);
+                    return adapted;
+                })
+                .orElse(fallback);
+    }
+}
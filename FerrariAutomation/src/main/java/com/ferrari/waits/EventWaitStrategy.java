@@ -0,0 +1,108 @@
+package com.ferrari.waits;
+
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Wait strategy that lets the browser watch the condition through {@link EventWaits}.
+ * URL conditions are resolved by the navigation events of the session ({@link NavigationEvents}).
+ * Composite conditions are watched as a whole when all of their branches can be watched the same way.
+ * Conditions without an in-browser equivalent, and in-browser waits that cannot run
+ * (for example because the page navigates away), are handed to the polling strategy
+ * for the remaining time.
+ */
+@Log4j2
+public class EventWaitStrategy implements WaitStrategy {
+    /**
+     * How often URL waits check the current URL in case a navigation was not reported.
+     */
+    private static final Duration URL_RECHECK_INTERVAL = Duration.ofMillis(500);
+    
+    private final WaitStrategy fallback;
+    
+    /**
+     * Constructor with the strategy used when the browser cannot watch the condition.
+     *
+     * @param fallback polling strategy
+     */
+    public EventWaitStrategy(WaitStrategy fallback) {
+        this.fallback = fallback;
+    }
+    
+    @Override
+    public <T> T await(WebDriver driver, WaitCondition<T> condition, Duration timeout) {
+        if (condition.isUrlCondition()) {
+            return awaitNavigation(driver, condition, timeout);
+        }
+        if (!condition.hasEventCondition() || !EventWaits.isSupported(driver, timeout)) {
+            return fallback.await(driver, condition, timeout);
+        }
+        
+        long start = System.nanoTime();
+        Integer matched = null;
+        try {
+            matched = EventWaits.await(driver, condition, timeout);
+        } catch (WebDriverException | UnsupportedOperationException e) {
+            // HtmlUnit rejects scripts on non-HTML pages with UnsupportedOperationException
+            log.debug("In-browser wait unavailable, falling back to polling: {}", e.getMessage());
+        }
+        
+        if (matched != null && matched >= 0) {
+            return condition.getEventResult(matched);
+        }
+        if (matched != null) {
+            throw new TimeoutException("Expected condition failed: waiting for " + condition
+                    + " (tried for " + timeout + ")");
+        }
+        
+        return fallback.await(driver, condition, remaining(timeout, start));
+    }
+    
+    /**
+     * Wait for a URL condition on the navigation events of the session, which resolve the wait as soon
+     * as a matching navigation commits. Sessions without navigation events are handed to the polling strategy.
+     *
+     * @param driver WebDriver instance
+     * @param condition URL condition to wait for
+     * @param timeout Wait timeout duration
+     * @param <T> Type of the expected result
+     * @return Result of the condition
+     */
+    private <T> T awaitNavigation(WebDriver driver, WaitCondition<T> condition, Duration timeout) {
+        Optional<NavigationEvents> events = NavigationEvents.of(driver);
+        if (events.isEmpty()) {
+            return fallback.await(driver, condition, timeout);
+        }
+        long start = System.nanoTime();
+        if (events.get().await(driver, condition.getUrlPredicate(), timeout, URL_RECHECK_INTERVAL)) {
+            if (condition.getEventResult() != null) {
+                return condition.getEventResult();
+            }
+            // Composite URL conditions report which branch matched, which only a check can tell
+            T result = condition.getCheck().apply(driver);
+            if (result != null && !Boolean.FALSE.equals(result)) {
+                return result;
+            }
+            return fallback.await(driver, condition, remaining(timeout, start));
+        }
+        throw new TimeoutException("Expected condition failed: waiting for " + condition
+                + " (tried for " + timeout + ")");
+    }
+    
+    /**
+     * Get the time left of a wait.
+     *
+     * @param timeout Wait timeout duration
+     * @param start {@link System#nanoTime()} when the wait started
+     * @return remaining time, zero if the timeout has expired
+     */
+    private static Duration remaining(Duration timeout, long start) {
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return elapsed.compareTo(timeout) < 0 ? timeout.minus(elapsed) : Duration.ZERO;
+    }
+}
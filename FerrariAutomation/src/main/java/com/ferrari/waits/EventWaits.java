@@ -0,0 +1,88 @@
+package com.ferrari.waits;
+
+import com.ferrari.config.ConfigurationManager;
+import com.ferrari.constants.TimeoutConstants;
+import com.ferrari.utils.Drivers;
+import com.ferrari.utils.ScriptResources;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Waits evaluated inside the browser.
+ * A single asynchronous script watches the page with a MutationObserver and
+ * requestAnimationFrame and returns as soon as the condition holds, instead of
+ * polling the condition over the wire.
+ */
+@Log4j2
+public class EventWaits {
+    private static final String SCRIPT = ScriptResources.load("js/wait-for-condition.js");
+    
+    /**
+     * Conditions the in-browser script knows how to evaluate.
+     */
+    public enum Condition {
+        VISIBLE("visible"),
+        CLICKABLE("clickable"),
+        PAGE_LOAD("pageLoad");
+        
+        private final String scriptName;
+        
+        Condition(String scriptName) {
+            this.scriptName = scriptName;
+        }
+    }
+    
+    private EventWaits() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Check whether an in-browser wait can be used for the given timeout.
+     * The asynchronous script must finish within the script timeout, which is the configured
+     * {@code timeout.script} that DriverManager sets on every session; it is not read back from the
+     * driver, which would cost a command per wait. HtmlUnit lays nothing out, so element visibility
+     * cannot be judged in its pages.
+     *
+     * @param driver WebDriver instance, possibly decorated
+     * @param timeout Wait timeout duration
+     * @return true if the wait can run in the browser
+     */
+    public static boolean isSupported(WebDriver driver, Duration timeout) {
+        if (!(driver instanceof JavascriptExecutor) || Drivers.unwrap(driver) instanceof HtmlUnitDriver) {
+            return false;
+        }
+        Duration scriptTimeout = TimeoutConstants.getScriptTimeout(ConfigurationManager.getInstance().getScriptTimeout());
+        return timeout.compareTo(scriptTimeout) < 0;
+    }
+    
+    /**
+     * Wait inside the browser until a condition holds.
+     * The branches of a composite condition are watched by the same script.
+     *
+     * @param driver WebDriver instance
+     * @param condition condition to wait for, with an in-browser equivalent for itself or each of its branches
+     * @param timeout Wait timeout duration
+     * @return index of the branch that matched (0 for simple and all-of conditions), or -1 if the timeout expired
+     */
+    public static int await(WebDriver driver, WaitCondition<?> condition, Duration timeout) {
+        List<WaitCondition<?>> branches = condition.isComposite() ? condition.getBranches() : List.of(condition);
+        List<WebElement> elements = new ArrayList<>(branches.size());
+        List<String> conditions = new ArrayList<>(branches.size());
+        for (WaitCondition<?> branch : branches) {
+            elements.add(branch.getElement());
+            conditions.add(branch.getEventCondition().scriptName);
+        }
+        
+        log.debug("Waiting in browser for conditions {} with timeout: {}", conditions, timeout);
+        Object result = ((JavascriptExecutor) driver)
+                .executeAsyncScript(SCRIPT, elements, conditions, condition.isAllBranches(), timeout.toMillis());
+        return result instanceof Number ? ((Number) result).intValue() : -1;
+    }
+}
@@ -0,0 +1,189 @@
+package com.ferrari.waits;
+
+import com.ferrari.utils.Drivers;
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.BrowsingContextInspector;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Committed navigations of a browser session, reported by the browser instead of polled.
+ * Sessions started with {@code webSocketUrl} report them over WebDriver BiDi; other Chromium-based
+ * sessions over DevTools ({@code Page.frameNavigated} of the main frame and
+ * {@code Page.navigatedWithinDocument}). Sessions supporting neither have no navigation events,
+ * and URL waits keep polling.
+ */
+@Log4j2
+public class NavigationEvents {
+    /**
+     * Navigation events of each session, empty for sessions that cannot report them.
+     */
+    private static final Map<WebDriver, Optional<NavigationEvents>> SESSIONS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+    
+    private static final Event<String> FRAME_NAVIGATED = new Event<>("Page.frameNavigated", input -> {
+        Map<String, Object> params = input.read(Json.MAP_TYPE);
+        Object frame = params.get("frame");
+        if (!(frame instanceof Map) || ((Map<?, ?>) frame).get("parentId") != null) {
+            return null;
+        }
+        return (String) ((Map<?, ?>) frame).get("url");
+    });
+    
+    private static final Event<String> NAVIGATED_WITHIN_DOCUMENT = new Event<>("Page.navigatedWithinDocument", input -> {
+        Map<String, Object> params = input.read(Json.MAP_TYPE);
+        return (String) params.get("url");
+    });
+    
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final Set<Consumer<String>> listeners = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * A wait for a navigation to a matching URL.
+     */
+    private static class Waiter {
+        private final Predicate<String> urlPredicate;
+        private final CompletableFuture<String> navigated = new CompletableFuture<>();
+        
+        /**
+         * Constructor.
+         *
+         * @param urlPredicate URLs the wait is looking for
+         */
+        Waiter(Predicate<String> urlPredicate) {
+            this.urlPredicate = urlPredicate;
+        }
+    }
+    
+    /**
+     * Get the navigation events of a session, subscribing to them on first use.
+     *
+     * @param driver WebDriver instance, possibly decorated
+     * @return navigation events, or empty if the session cannot report them
+     */
+    public static Optional<NavigationEvents> of(WebDriver driver) {
+        WebDriver session = Drivers.unwrap(driver);
+        return SESSIONS.computeIfAbsent(session, NavigationEvents::subscribe);
+    }
+    
+    /**
+     * Subscribe to the navigation events of a session.
+     *
+     * @param session browser session
+     * @return navigation events, or empty if the session supports neither DevTools nor BiDi
+     */
+    private static Optional<NavigationEvents> subscribe(WebDriver session) {
+        NavigationEvents events = new NavigationEvents();
+        try {
+            if (session instanceof HasBiDi && ((HasBiDi) session).maybeGetBiDi().isPresent()) {
+                BrowsingContextInspector inspector = new BrowsingContextInspector(session);
+                inspector.onDomContentLoaded(navigation -> events.onNavigated(navigation.getUrl()));
+                inspector.onBrowsingContextLoaded(navigation -> events.onNavigated(navigation.getUrl()));
+                log.debug("Listening for navigations over BiDi");
+                return Optional.of(events);
+            }
+            if (session instanceof ChromiumDriver) {
+                DevTools devTools = ((HasDevTools) session).getDevTools();
+                devTools.createSessionIfThereIsNotOne();
+                devTools.send(new Command<>("Page.enable", Map.of()));
+                devTools.addListener(FRAME_NAVIGATED, events::onNavigated);
+                devTools.addListener(NAVIGATED_WITHIN_DOCUMENT, events::onNavigated);
+                log.debug("Listening for navigations over DevTools");
+                return Optional.of(events);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not listen for navigations, URL waits will poll: {}", e.getMessage());
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Complete the waits looking for the URL a navigation committed.
+     *
+     * @param url committed URL, or null for navigations of subframes
+     */
+    private void onNavigated(String url) {
+        if (url == null) {
+            return;
+        }
+        log.debug("Navigation committed: {}", url);
+        listeners.forEach(listener -> listener.accept(url));
+        for (Waiter waiter : waiters) {
+            if (waiter.urlPredicate.test(url)) {
+                waiter.navigated.complete(url);
+            }
+        }
+    }
+    
+    /**
+     * Call a listener with the URL of every navigation the session commits from now on.
+     *
+     * @param listener called on the thread delivering the browser's events
+     */
+    public void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Wait until the current URL matches, or a navigation to a matching URL commits.
+     * The current URL is also checked every {@code recheckInterval}, so navigations the events
+     * do not cover (such as those in another window) are still seen.
+     *
+     * @param driver WebDriver instance
+     * @param urlPredicate URLs to wait for
+     * @param timeout Wait timeout duration
+     * @param recheckInterval interval between checks of the current URL
+     * @return true if a matching URL was seen, false if the timeout expired
+     */
+    public boolean await(WebDriver driver, Predicate<String> urlPredicate, Duration timeout, Duration recheckInterval) {
+        Waiter waiter = new Waiter(urlPredicate);
+        waiters.add(waiter);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            while (true) {
+                String currentUrl = driver.getCurrentUrl();
+                if (currentUrl != null && urlPredicate.test(currentUrl)) {
+                    return true;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    String url = waiter.navigated.get(Math.min(remaining, recheckInterval.toNanos()), TimeUnit.NANOSECONDS);
+                    log.debug("Wait resolved by navigation to {}", url);
+                    return true;
+                } catch (TimeoutException e) {
+                    // No matching navigation yet; check the current URL again
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        } finally {
+            waiters.remove(waiter);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ferrari.waits;
+
+import lombok.extern.log4j.Log4j2;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+
+/**
+ * Wait strategy that polls the condition over WebDriver.
+ * The first check happens immediately; the interval between checks starts small
+ * and grows by {@code multiplier} up to {@code maxInterval}, so fast conditions
+ * return quickly and slow ones do not flood the driver with requests.
+ */
+@Log4j2
+public class PollingWaitStrategy implements WaitStrategy {
+    private final Duration initialInterval;
+    private final Duration maxInterval;
+    private final double multiplier;
+    
+    /**
+     * Constructor with polling backoff settings.
+     *
+     * @param initialInterval interval before the second check
+     * @param maxInterval upper bound of the interval between checks
+     * @param multiplier factor applied to the interval after each check
+     */
+    public PollingWaitStrategy(Duration initialInterval, Duration maxInterval, double multiplier) {
+        this.initialInterval = initialInterval;
+        this.maxInterval = maxInterval.compareTo(initialInterval) < 0 ? initialInterval : maxInterval;
+        this.multiplier = Math.max(1.0, multiplier);
+    }
+    
+    @Override
+    public <T> T await(WebDriver driver, WaitCondition<T> condition, Duration timeout) {
+        log.debug("Polling for {} with timeout: {}", condition, timeout);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long intervalMillis = Math.max(1, initialInterval.toMillis());
+        RuntimeException lastError = null;
+        
+        while (true) {
+            try {
+                T value = condition.getCheck().apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    return value;
+                }
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                lastError = e;
+            }
+            
+            long remainingMillis = Duration.ofNanos(deadline - System.nanoTime()).toMillis();
+            if (remainingMillis <= 0) {
+                throw new TimeoutException(
+                        "Expected condition failed: waiting for " + condition + " (tried for " + timeout + ")",
+                        lastError);
+            }
+            
+            sleep(Math.min(intervalMillis, remainingMillis));
+            intervalMillis = Math.min((long) (intervalMillis * multiplier), maxInterval.toMillis());
+        }
+    }
+    
+    /**
+     * Sleep between two checks.
+     *
+     * @param millis time to sleep in milliseconds
+     */
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting", e);
+        }
+    }
+}
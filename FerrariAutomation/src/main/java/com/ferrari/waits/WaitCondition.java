@@ -0,0 +1,316 @@
+package com.ferrari.waits;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A condition a {@link WaitStrategy} can wait for.
+ * The check returns null or false while the condition does not hold yet.
+ * Conditions that the browser can watch by itself also carry the matching
+ * {@link EventWaits.Condition}, and URL conditions carry the URLs they wait for so
+ * {@link NavigationEvents} can resolve them.
+ * Composite conditions ({@link #anyOf}, {@link #allOf}) evaluate their branches together in a single
+ * wait, so alternatives do not pay for each other's timeouts.
+ *
+ * @param <T> Type of the result once the condition holds
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class WaitCondition<T> {
+    private final String description;
+    private final Function<WebDriver, T> check;
+    private final EventWaits.Condition eventCondition;
+    private final WebElement element;
+    private final T eventResult;
+    private final Predicate<String> urlPredicate;
+    
+    /**
+     * Branches of a composite condition, or null for simple conditions.
+     */
+    private final List<WaitCondition<?>> branches;
+    
+    /**
+     * Whether all branches of a composite condition must hold, rather than any of them.
+     */
+    private final boolean allBranches;
+    
+    /**
+     * Stable name identifying this wait across runs (page, action and locator), or null.
+     * Named waits have their durations recorded and their timeouts adapted.
+     */
+    private final String name;
+    
+    /**
+     * Create a condition that can only be evaluated by polling.
+     *
+     * @param description description used in timeout messages
+     * @param check returns the result, or null/false while the condition does not hold
+     * @param <T> Type of the result
+     * @return WaitCondition instance
+     */
+    public static <T> WaitCondition<T> of(String description, Function<WebDriver, T> check) {
+        return new WaitCondition<>(description, check, null, null, null, null, null, false, null);
+    }
+    
+    /**
+     * Condition that holds when an element is visible.
+     *
+     * @param element WebElement to wait for
+     * @return WaitCondition returning the element
+     */
+    public static WaitCondition<WebElement> visible(WebElement element) {
+        return new WaitCondition<>("visibility of " + element,
+                driver -> element.isDisplayed() ? element : null,
+                EventWaits.Condition.VISIBLE, element, element, null, null, false, null);
+    }
+    
+    /**
+     * Condition that holds when an element is visible and enabled.
+     *
+     * @param element WebElement to wait for
+     * @return WaitCondition returning the element
+     */
+    public static WaitCondition<WebElement> clickable(WebElement element) {
+        return new WaitCondition<>("element to be clickable: " + element,
+                driver -> element.isDisplayed() && element.isEnabled() ? element : null,
+                EventWaits.Condition.CLICKABLE, element, element, null, null, false, null);
+    }
+    
+    /**
+     * Condition that holds when the document ready state is complete.
+     *
+     * @return WaitCondition returning true
+     */
+    public static WaitCondition<Boolean> pageLoaded() {
+        return new WaitCondition<>("page to be loaded",
+                driver -> "complete".equals(((JavascriptExecutor) driver).executeScript("return document.readyState")),
+                EventWaits.Condition.PAGE_LOAD, null, Boolean.TRUE, null, null, false, null);
+    }
+    
+    /**
+     * Condition that holds when the current URL contains a text.
+     *
+     * @param urlText text the URL should contain
+     * @return WaitCondition returning true
+     */
+    public static WaitCondition<Boolean> urlContains(String urlText) {
+        return url("URL to contain \"" + urlText + "\"", currentUrl -> currentUrl.contains(urlText));
+    }
+    
+    /**
+     * Condition that holds when the current URL equals an expected URL.
+     *
+     * @param url expected URL
+     * @return WaitCondition returning true
+     */
+    public static WaitCondition<Boolean> urlToBe(String url) {
+        return url("URL to be \"" + url + "\"", url::equals);
+    }
+    
+    /**
+     * Condition that holds when the current URL matches a predicate.
+     *
+     * @param description description used in timeout messages
+     * @param urlPredicate test of the current URL
+     * @return WaitCondition returning true
+     */
+    private static WaitCondition<Boolean> url(String description, Predicate<String> urlPredicate) {
+        return new WaitCondition<>(description, driver -> {
+            String currentUrl = driver.getCurrentUrl();
+            return currentUrl != null && urlPredicate.test(currentUrl);
+        }, null, null, Boolean.TRUE, urlPredicate, null, false, null);
+    }
+    
+    /**
+     * Condition that holds when an element is either missing or not displayed.
+     *
+     * @param element WebElement expected to be absent
+     * @return WaitCondition returning true
+     */
+    public static WaitCondition<Boolean> absent(WebElement element) {
+        return of("absence of " + element, driver -> {
+            try {
+                return !element.isDisplayed();
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                return true;
+            }
+        });
+    }
+    
+    /**
+     * Condition that holds when no displayed element matches a locator.
+     *
+     * @param locator locator expected to match nothing visible
+     * @return WaitCondition returning true
+     */
+    public static WaitCondition<Boolean> absent(By locator) {
+        return of("absence of " + locator, driver -> {
+            List<WebElement> elements = driver.findElements(locator);
+            try {
+                return elements.stream().noneMatch(WebElement::isDisplayed);
+            } catch (StaleElementReferenceException e) {
+                return true;
+            }
+        });
+    }
+    
+    /**
+     * Condition that holds as soon as any of its branches holds.
+     * The branches are evaluated together in each check, in order, so the first one listed wins
+     * when several hold at once. When every branch can be watched by the browser (or every branch
+     * is a URL condition) the composite is watched by the browser as well.
+     *
+     * @param branches alternative conditions
+     * @return WaitCondition returning the branch that matched
+     */
+    public static WaitCondition<WaitCondition<?>> anyOf(WaitCondition<?>... branches) {
+        List<WaitCondition<?>> alternatives = List.of(branches);
+        Predicate<String> urlPredicate = combineUrlPredicates(alternatives, Predicate::or);
+        return new WaitCondition<>("any of " + alternatives, driver -> {
+            for (WaitCondition<?> branch : alternatives) {
+                if (isMet(evaluate(branch, driver))) {
+                    return branch;
+                }
+            }
+            return null;
+        }, null, null, null, urlPredicate, alternatives, false, null);
+    }
+    
+    /**
+     * Condition that holds once all of its branches hold in the same check.
+     *
+     * @param branches conditions that must all hold
+     * @return WaitCondition returning the result of each branch, in order
+     */
+    public static WaitCondition<List<Object>> allOf(WaitCondition<?>... branches) {
+        List<WaitCondition<?>> conditions = List.of(branches);
+        Predicate<String> urlPredicate = combineUrlPredicates(conditions, Predicate::and);
+        return new WaitCondition<>("all of " + conditions, driver -> {
+            List<Object> results = new ArrayList<>(conditions.size());
+            for (WaitCondition<?> branch : conditions) {
+                Object result = evaluate(branch, driver);
+                if (!isMet(result)) {
+                    return null;
+                }
+                results.add(result);
+            }
+            return results;
+        }, null, null, null, urlPredicate, conditions, true, null);
+    }
+    
+    /**
+     * Combine the URL predicates of composite branches, when every branch is a URL condition.
+     *
+     * @param branches branches of the composite
+     * @param combiner how two predicates combine (or / and)
+     * @return combined predicate, or null if some branch is not a URL condition
+     */
+    private static Predicate<String> combineUrlPredicates(List<WaitCondition<?>> branches,
+                                                          BinaryOperator<Predicate<String>> combiner) {
+        if (branches.isEmpty() || !branches.stream().allMatch(WaitCondition::isUrlCondition)) {
+            return null;
+        }
+        return branches.stream().map(WaitCondition::getUrlPredicate).reduce(combiner).orElseThrow();
+    }
+    
+    /**
+     * Evaluate one branch of a composite, treating missing or stale elements as not met yet.
+     *
+     * @param branch branch to evaluate
+     * @param driver WebDriver instance
+     * @return result of the branch, or null if it does not hold
+     */
+    private static Object evaluate(WaitCondition<?> branch, WebDriver driver) {
+        try {
+            return branch.getCheck().apply(driver);
+        } catch (NotFoundException | StaleElementReferenceException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Check whether a check result means the condition holds.
+     *
+     * @param result result of a check
+     * @return true unless the result is null or false
+     */
+    private static boolean isMet(Object result) {
+        return result != null && !Boolean.FALSE.equals(result);
+    }
+    
+    /**
+     * Get a copy of this condition with a name, so its durations are recorded.
+     *
+     * @param waitName stable name of the wait, e.g. {@code FerrariSF90Page.visible[.model_banner]}
+     * @return named WaitCondition
+     */
+    public WaitCondition<T> named(String waitName) {
+        return new WaitCondition<>(description, check, eventCondition, element, eventResult, urlPredicate,
+                branches, allBranches, waitName);
+    }
+    
+    /**
+     * Check whether the browser can watch this condition by itself.
+     *
+     * @return true if an in-browser equivalent exists
+     */
+    public boolean hasEventCondition() {
+        return eventCondition != null
+                || isComposite() && branches.stream().allMatch(branch -> branch.getEventCondition() != null);
+    }
+    
+    /**
+     * Check whether this condition combines several branches.
+     *
+     * @return true for {@link #anyOf} and {@link #allOf} conditions
+     */
+    public boolean isComposite() {
+        return branches != null;
+    }
+    
+    /**
+     * Get the result of this condition once the browser reported it met.
+     *
+     * @param matchedBranch index of the branch that matched, for {@link #anyOf} conditions
+     * @return result the polling check would have returned
+     */
+    @SuppressWarnings("unchecked")
+    T getEventResult(int matchedBranch) {
+        if (!isComposite()) {
+            return eventResult;
+        }
+        if (!allBranches) {
+            return (T) branches.get(matchedBranch);
+        }
+        List<Object> results = new ArrayList<>(branches.size());
+        branches.forEach(branch -> results.add(branch.getEventResult()));
+        return (T) results;
+    }
+    
+    /**
+     * Check whether this condition is about the current URL, so navigation events can resolve it.
+     *
+     * @return true if the condition has a URL predicate
+     */
+    public boolean isUrlCondition() {
+        return urlPredicate != null;
+    }
+    
+    @Override
+    public String toString() {
+        return description;
+    }
+}
@@ -0,0 +1,158 @@
+package com.ferrari.waits;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * History of how long named waits took, persisted between runs.
+ * The file holds one line per wait name: the name, a tab, and the most recent
+ * durations in milliseconds separated by commas.
+ */
+@Log4j2
+public class WaitHistory {
+    private static final int MAX_SAMPLES = 200;
+    
+    private final Path file;
+    private final Map<String, Deque<Long>> samples = new ConcurrentHashMap<>();
+    private final Map<String, List<Long>> recorded = new ConcurrentHashMap<>();
+    
+    /**
+     * Constructor loading any existing history.
+     *
+     * @param file history file
+     */
+    public WaitHistory(Path file) {
+        this.file = file;
+        samples.putAll(read(file));
+        log.info("Loaded wait history for {} wait(s) from {}", samples.size(), file);
+    }
+    
+    /**
+     * Record the duration of a successful wait.
+     *
+     * @param name wait name
+     * @param millis time the wait took in milliseconds
+     */
+    public void record(String name, long millis) {
+        Deque<Long> history = samples.computeIfAbsent(name, key -> new ArrayDeque<>());
+        synchronized (history) {
+            history.addLast(millis);
+            if (history.size() > MAX_SAMPLES) {
+                history.removeFirst();
+            }
+        }
+        recorded.computeIfAbsent(name, key -> Collections.synchronizedList(new ArrayList<>())).add(millis);
+    }
+    
+    /**
+     * Get a percentile of the recorded durations of a wait.
+     *
+     * @param name wait name
+     * @param percentile percentile between 0 and 100
+     * @param minSamples number of samples required before a value is returned
+     * @return the percentile in milliseconds, or empty if there are not enough samples
+     */
+    public Optional<Long> percentile(String name, double percentile, int minSamples) {
+        Deque<Long> history = samples.get(name);
+        if (history == null) {
+            return Optional.empty();
+        }
+        
+        List<Long> sorted;
+        synchronized (history) {
+            if (history.size() < minSamples) {
+                return Optional.empty();
+            }
+            sorted = new ArrayList<>(history);
+        }
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return Optional.of(sorted.get(Math.min(sorted.size(), Math.max(1, rank)) - 1));
+    }
+    
+    /**
+     * Write the history file.
+     * The file is re-read first so durations recorded by other forks in the meantime are kept.
+     */
+    public synchronized void save() {
+        if (recorded.isEmpty()) {
+            return;
+        }
+        
+        Map<String, Deque<Long>> merged = new TreeMap<>(read(file));
+        recorded.forEach((name, durations) -> {
+            Deque<Long> history = merged.computeIfAbsent(name, key -> new ArrayDeque<>());
+            synchronized (durations) {
+                history.addAll(durations);
+            }
+            while (history.size() > MAX_SAMPLES) {
+                history.removeFirst();
+            }
+        });
+        
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "wait-history", ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Deque<Long>> entry : merged.entrySet()) {
+                    writer.write(entry.getKey() + "\t" + entry.getValue().stream()
+                            .map(String::valueOf)
+                            .collect(Collectors.joining(",")));
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            recorded.clear();
+            log.info("Saved wait history for {} wait(s) to {}", merged.size(), file);
+        } catch (IOException e) {
+            log.error("Failed to save wait history: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Read a history file.
+     *
+     * @param path history file
+     * @return durations by wait name, empty if the file does not exist or cannot be read
+     */
+    private static Map<String, Deque<Long>> read(Path path) {
+        Map<String, Deque<Long>> history = new ConcurrentHashMap<>();
+        if (!Files.exists(path)) {
+            return history;
+        }
+        
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                int tab = line.lastIndexOf('\t');
+                if (tab <= 0 || tab == line.length() - 1) {
+                    continue;
+                }
+                Deque<Long> durations = new ArrayDeque<>();
+                for (String value : line.substring(tab + 1).split(",")) {
+                    durations.addLast(Long.parseLong(value.trim()));
+                }
+                history.put(line.substring(0, tab), durations);
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Ignoring unreadable wait history {}: {}", path, e.getMessage());
+        }
+        return history;
+    }
+}
@@ -0,0 +1,25 @@
+package com.ferrari.waits;
+
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+
+/**
+ * Strategy used to wait for a {@link WaitCondition}.
+ * Implementations assume implicit waits are disabled, so every check of the
+ * condition costs at most one lookup.
+ */
+public interface WaitStrategy {
+    
+    /**
+     * Wait until a condition holds.
+     *
+     * @param driver WebDriver instance
+     * @param condition condition to wait for
+     * @param timeout Wait timeout duration; zero checks the condition once
+     * @param <T> Type of the expected result
+     * @return Result of the condition
+     * @throws org.openqa.selenium.TimeoutException if the condition does not hold in time
+     */
+    <T> T await(WebDriver driver, WaitCondition<T> condition, Duration timeout);
+}
@@ -0,0 +1,35 @@
+/*
+ * Reads the state of many elements in one call.
+ *
+ * arguments: the elements to read
+ * returns: one object per element with text, displayed, enabled, href and bounding rect
+ */
+function isVisible(el) {
+    if (!el.isConnected) {
+        return false;
+    }
+    var style = window.getComputedStyle(el);
+    if (style.visibility === 'hidden' || style.visibility === 'collapse' || parseFloat(style.opacity) === 0) {
+        return false;
+    }
+    var rect = el.getBoundingClientRect();
+    return rect.width > 0 && rect.height > 0;
+}
+
+var states = [];
+for (var i = 0; i < arguments.length; i++) {
+    var el = arguments[i];
+    var rect = el.getBoundingClientRect();
+    var link = el.closest('a[href]');
+    states.push({
+        text: (el.innerText || el.textContent || '').trim(),
+        displayed: isVisible(el),
+        enabled: !el.disabled,
+        href: link ? link.href : null,
+        x: rect.left,
+        y: rect.top,
+        width: rect.width,
+        height: rect.height
+    });
+}
+return states;
@@ -0,0 +1,118 @@
+/*
+ * Reads the performance entries of the current document in one call: Navigation Timing, paint,
+ * Resource Timing, largest contentful paint and layout shifts. The entries are read once the
+ * document has loaded (or the load wait ran out) and a settle delay has passed, so the load event
+ * has ended and LCP candidates painted after the ready condition are included. LCP and layout
+ * shifts are only exposed to a PerformanceObserver, so they are observed with buffered entries
+ * and collected on the next task. Metrics the browser does not support are left out.
+ *
+ * arguments[0]: settle delay after the load event in ms
+ * arguments[1]: longest time to wait for the load event in ms
+ * arguments[2]: WebDriver callback, called with an object of metrics (times in ms from navigation start)
+ */
+var settleMillis = arguments[0];
+var loadTimeoutMillis = arguments[1];
+var callback = arguments[arguments.length - 1];
+
+function collect() {
+    var result = {url: location.href};
+
+    var navigation = performance.getEntriesByType ? performance.getEntriesByType('navigation')[0] : null;
+    if (navigation) {
+        result.ttfb = navigation.responseStart;
+        if (navigation.domContentLoadedEventEnd > 0) {
+            result.domContentLoaded = navigation.domContentLoadedEventEnd;
+        }
+        if (navigation.loadEventEnd > 0) {
+            result.load = navigation.loadEventEnd;
+        }
+    } else if (performance.timing) {
+        var timing = performance.timing;
+        result.ttfb = timing.responseStart - timing.navigationStart;
+        if (timing.domContentLoadedEventEnd > 0) {
+            result.domContentLoaded = timing.domContentLoadedEventEnd - timing.navigationStart;
+        }
+        if (timing.loadEventEnd > 0) {
+            result.load = timing.loadEventEnd - timing.navigationStart;
+        }
+    }
+
+    if (performance.getEntriesByType) {
+        performance.getEntriesByType('paint').forEach(function (entry) {
+            if (entry.name === 'first-paint') {
+                result.firstPaint = entry.startTime;
+            } else if (entry.name === 'first-contentful-paint') {
+                result.fcp = entry.startTime;
+            }
+        });
+
+        var resources = performance.getEntriesByType('resource');
+        var transferBytes = 0;
+        var slowest = null;
+        resources.forEach(function (entry) {
+            transferBytes += entry.transferSize || 0;
+            if (!slowest || entry.duration > slowest.duration) {
+                slowest = entry;
+            }
+        });
+        result.resourceCount = resources.length;
+        result.transferBytes = transferBytes;
+        if (slowest) {
+            result.slowestResource = slowest.name;
+            result.slowestResourceMillis = slowest.duration;
+        }
+    }
+
+    var supported = (window.PerformanceObserver && PerformanceObserver.supportedEntryTypes) || [];
+    var observers = [];
+
+    function observe(type, onEntry) {
+        if (supported.indexOf(type) < 0) {
+            return false;
+        }
+        var observer = new PerformanceObserver(function (list) {
+            list.getEntries().forEach(onEntry);
+        });
+        observer.observe({type: type, buffered: true});
+        observers.push({observer: observer, onEntry: onEntry});
+        return true;
+    }
+
+    observe('largest-contentful-paint', function (entry) {
+        result.lcp = entry.startTime;
+    });
+    if (observe('layout-shift', function (entry) {
+        if (!entry.hadRecentInput) {
+            result.cls += entry.value;
+        }
+    })) {
+        result.cls = 0;
+    }
+
+    window.setTimeout(function () {
+        observers.forEach(function (registration) {
+            registration.observer.takeRecords().forEach(registration.onEntry);
+            registration.observer.disconnect();
+        });
+        callback(result);
+    }, 0);
+}
+
+function settle() {
+    window.setTimeout(collect, settleMillis);
+}
+
+if (document.readyState === 'complete') {
+    settle();
+} else {
+    var loaded = false;
+    var onLoad = function () {
+        if (!loaded) {
+            loaded = true;
+            // The load event has ended by the time the settle delay has passed
+            settle();
+        }
+    };
+    window.addEventListener('load', onLoad);
+    window.setTimeout(onLoad, loadTimeoutMillis);
+}
@@ -0,0 +1,102 @@
+/*
+ * Waits inside the page until any (or all) of a list of conditions hold, then calls back once.
+ * Re-checks on every DOM mutation, ready state change and animation frame,
+ * so the callback fires as soon as the conditions become true.
+ *
+ * arguments[0]: elements to check, one per condition (null for page-level conditions)
+ * arguments[1]: condition names, each "visible", "clickable" or "pageLoad"
+ * arguments[2]: true if all conditions must hold, false if any of them is enough
+ * arguments[3]: timeout in milliseconds
+ * arguments[4]: WebDriver callback, called with the index of the condition that held
+ *               (0 when all must hold) or -1 on timeout
+ */
+var elements = arguments[0];
+var conditions = arguments[1];
+var all = arguments[2];
+var timeout = arguments[3];
+var callback = arguments[arguments.length - 1];
+
+function isVisible(el) {
+    if (!el || !el.isConnected) {
+        return false;
+    }
+    var style = window.getComputedStyle(el);
+    if (style.visibility === 'hidden' || style.visibility === 'collapse' || parseFloat(style.opacity) === 0) {
+        return false;
+    }
+    var rect = el.getBoundingClientRect();
+    return rect.width > 0 && rect.height > 0;
+}
+
+function holds(condition, element) {
+    switch (condition) {
+        case 'visible':
+            return isVisible(element);
+        case 'clickable':
+            return isVisible(element) && !element.disabled;
+        case 'pageLoad':
+            return document.readyState === 'complete';
+        default:
+            throw new Error('Unknown wait condition: ' + condition);
+    }
+}
+
+function check() {
+    for (var i = 0; i < conditions.length; i++) {
+        var held = holds(conditions[i], elements[i]);
+        if (all && !held) {
+            return -1;
+        }
+        if (!all && held) {
+            return i;
+        }
+    }
+    return all ? 0 : -1;
+}
+
+var matched = check();
+if (matched >= 0) {
+    callback(matched);
+    return;
+}
+
+var finished = false;
+var observer = null;
+var frame = 0;
+var timer = 0;
+
+function finish(result) {
+    if (finished) {
+        return;
+    }
+    finished = true;
+    if (observer) {
+        observer.disconnect();
+    }
+    window.cancelAnimationFrame(frame);
+    window.clearTimeout(timer);
+    document.removeEventListener('readystatechange', onChange);
+    callback(result);
+}
+
+function onChange() {
+    var matched = check();
+    if (matched >= 0) {
+        finish(matched);
+    }
+}
+
+function onFrame() {
+    onChange();
+    if (!finished) {
+        frame = window.requestAnimationFrame(onFrame);
+    }
+}
+
+observer = new MutationObserver(onChange);
+observer.observe(document.documentElement, {attributes: true, childList: true, subtree: true, characterData: true});
+document.addEventListener('readystatechange', onChange);
+frame = window.requestAnimationFrame(onFrame);
+timer = window.setTimeout(function () {
+    finish(-1);
+}, timeout);
@@ -0,0 +1,25 @@
+package com.ferrari.hooks;
+
+import com.ferrari.config.GuiceModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Stage;
+import io.cucumber.guice.CucumberModules;
+import io.cucumber.guice.InjectorSource;
+
+/**
+ * Injector source picked up by cucumber-guice from the glue path.
+ * Adds the framework bindings to the Cucumber scenario scope.
+ */
+public class GuiceInjectorSource implements InjectorSource {
+    
+    /**
+     * Create the injector used for step definitions and hooks.
+     *
+     * @return Guice injector
+     */
+    @Override
+    public Injector getInjector() {
+        return Guice.createInjector(Stage.PRODUCTION, CucumberModules.createScenarioModule(), new GuiceModule());
+    }
+}
@@ -1,6 +1,10 @@
 package com.ferrari.hooks;
 
+import com.ferrari.config.BrowserProfile;
+import com.ferrari.config.ConfigurationManager;
 import com.ferrari.config.DriverManager;
+import com.ferrari.performance.PagePerformance;
+import com.ferrari.reporting.ArtifactStore;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
@@ -9,7 +13,9 @@ import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 
-import javax.inject.Inject;
+import jakarta.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Cucumber hooks for test setup and teardown.
@@ -17,29 +23,41 @@ import javax.inject.Inject;
 @Log4j2
 public class TestHooks {
     
+    private final ConfigurationManager configManager;
     private final DriverManager driverManager;
     private final WebDriver driver;
+    private final ArtifactStore artifactStore;
     
     /**
      * Constructor with dependencies injected by Guice.
      *
+     * @param configManager ConfigurationManager instance
      * @param driverManager DriverManager instance
      * @param driver WebDriver instance
+     * @param artifactStore ArtifactStore instance
      */
     @Inject
-    public TestHooks(DriverManager driverManager, WebDriver driver) {
+    public TestHooks(ConfigurationManager configManager, DriverManager driverManager, WebDriver driver,
+                     ArtifactStore artifactStore) {
+        this.configManager = configManager;
         this.driverManager = driverManager;
         this.driver = driver;
+        this.artifactStore = artifactStore;
     }
     
     /**
      * Setup method to be executed before each scenario.
+     * When the runner bound the scenario to a browser (matrix or lite mode) the browser is logged in the reports.
      *
      * @param scenario current Cucumber scenario
      */
     @Before
     public void setUp(Scenario scenario) {
-        log.info("Starting scenario: {}", scenario.getName());
+        String browser = configManager.getBrowserProfile().getLabel();
+        log.info("Starting scenario: {} on {}", scenario.getName(), browser);
+        if (BrowserProfile.current() != null) {
+            scenario.log("Browser: " + browser);
+        }
     }
     
     /**
@@ -56,8 +74,28 @@ public class TestHooks {
             takeScreenshot(scenario);
         }
         
-        // Close browser only after all scenarios are complete
-        // We're using a hook with a special tag for final cleanup
+        // Pooled sessions go back to the pool for the next scenario;
+        // otherwise the browser stays open until the final cleanup
+        driverManager.releaseDriver();
+    }
+    
+    /**
+     * Attach the page load metrics measured during the scenario to the report, and fail the scenario
+     * when a page exceeded its performance budget and {@code performance.failOnBudget} is set.
+     * Runs before {@link #tearDown(Scenario)}, which releases the browser.
+     *
+     * @param scenario current Cucumber scenario
+     */
+    @After(order = 20000)
+    public void attachPageTimings(Scenario scenario) {
+        List<String> breaches = new ArrayList<>();
+        for (PagePerformance.Measurement measurement : PagePerformance.drain()) {
+            scenario.attach(measurement.toReport(), "text/plain", "Page timings: " + measurement.getTimings().getPage());
+            breaches.addAll(measurement.getBreaches());
+        }
+        if (!breaches.isEmpty() && configManager.isPerformanceFailOnBudget()) {
+            throw new AssertionError("Performance budget exceeded: " + String.join("; ", breaches));
+        }
     }
     
     /**
@@ -70,14 +108,18 @@ public class TestHooks {
     }
     
     /**
-     * Take a screenshot and attach it to the scenario.
+     * Take a screenshot, store it on disk and attach a link to it to the scenario.
      *
      * @param scenario current Cucumber scenario
      */
     private void takeScreenshot(Scenario scenario) {
+        if (!(driver instanceof TakesScreenshot)) {
+            log.info("{} cannot take screenshots", configManager.getBrowserType());
+            return;
+        }
         try {
             byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-            scenario.attach(screenshot, "image/png", "Screenshot");
+            scenario.attach(artifactStore.store(screenshot, "image/png"), "text/uri-list", "Screenshot");
         } catch (Exception e) {
             log.error("Failed to take screenshot: {}", e.getMessage(), e);
         }
@@ -0,0 +1,98 @@
+package com.ferrari.load;
+
+import com.ferrari.config.ConfigurationManager;
+import com.ferrari.config.DriverManager;
+import com.ferrari.constants.BrowserType;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load generation against the local stand-in site on the lite driver.
+ */
+public class LoadGeneratorTest {
+    private static final List<String> STEPS = List.of("openHome", "search", "openFirstResult", "verifySF90");
+    
+    private StandInSite site;
+    
+    /**
+     * Start the stand-in site.
+     *
+     * @throws IOException if the site cannot be started
+     */
+    @BeforeClass
+    public void startSite() throws IOException {
+        site = new StandInSite();
+    }
+    
+    /**
+     * Stop the stand-in site and the sessions of the run.
+     */
+    @AfterClass(alwaysRun = true)
+    public void stopSite() {
+        if (site != null) {
+            site.close();
+        }
+        DriverManager.quitAllDrivers();
+    }
+    
+    /**
+     * Two users running one journey each complete every step once per user.
+     */
+    @Test
+    public void runsEveryUserThroughTheJourney() {
+        LoadProfile profile = new LoadProfile(2, Duration.ZERO, 1, Duration.ofMillis(200), Duration.ZERO);
+        LoadStats stats = new LoadGenerator(ConfigurationManager.getInstance(), profile, BrowserType.LITE)
+                .run(new SearchJourney(site.getBaseUrl(), "ferrari sf90"));
+        
+        assertThat(stats.getCount(LoadStats.JOURNEY)).as("completed journeys").isEqualTo(2);
+        assertThat(stats.getErrors(LoadStats.JOURNEY)).as("failed journeys").isZero();
+        for (String step : STEPS) {
+            assertThat(stats.getCount(step)).as("runs of step %s", step).isEqualTo(2);
+            assertThat(stats.getErrors(step)).as("errors of step %s", step).isZero();
+        }
+        
+        String report = stats.report(profile.getUsers());
+        assertThat(report).contains("2 users", "2 journeys completed, 0 failed");
+        assertThat(report.lines().filter(line -> STEPS.stream().anyMatch(line::startsWith))).hasSize(STEPS.size());
+    }
+    
+    /**
+     * Users start evenly over the ramp-up.
+     */
+    @Test
+    public void spreadsUserStartsOverTheRampUp() {
+        LoadProfile profile = new LoadProfile(4, Duration.ofSeconds(10), 0, Duration.ofSeconds(2), Duration.ZERO);
+        
+        assertThat(profile.startDelay(0)).isEqualTo(Duration.ZERO);
+        assertThat(profile.startDelay(1)).isEqualTo(Duration.ofMillis(500));
+        assertThat(profile.startDelay(3)).isEqualTo(Duration.ofMillis(1500));
+    }
+    
+    /**
+     * Iteration counts and durations end the run, and without either every user runs once.
+     */
+    @Test
+    public void stopsAtTheIterationCountOrDeadline() {
+        long future = System.nanoTime() + Duration.ofMinutes(1).toNanos();
+        long past = System.nanoTime() - 1;
+        
+        LoadProfile iterations = new LoadProfile(1, Duration.ZERO, 2, Duration.ZERO, Duration.ZERO);
+        assertThat(iterations.hasNext(1, past)).isTrue();
+        assertThat(iterations.hasNext(2, past)).isFalse();
+        
+        LoadProfile timed = new LoadProfile(1, Duration.ofMinutes(1), 0, Duration.ZERO, Duration.ZERO);
+        assertThat(timed.hasNext(100, future)).isTrue();
+        assertThat(timed.hasNext(100, past)).isFalse();
+        
+        LoadProfile once = new LoadProfile(1, Duration.ZERO, 0, Duration.ZERO, Duration.ZERO);
+        assertThat(once.hasNext(0, past)).isTrue();
+        assertThat(once.hasNext(1, past)).isFalse();
+    }
+}
@@ -0,0 +1,102 @@
+package com.ferrari.runner;
+
+import com.ferrari.config.BrowserProfile;
+import com.ferrari.config.ConfigurationManager;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Cucumber plugin comparing scenario durations per browser.
+ * When scenarios ran against more than one browser (a browser matrix, or lite mode in compare mode),
+ * a table with the duration of each scenario on each browser is written at the end of the run.
+ */
+@Log4j2
+public class BrowserTimingPlugin implements ConcurrentEventListener {
+    private final Map<String, Map<String, Long>> durations = new ConcurrentHashMap<>();
+    private final Set<String> browsers = new ConcurrentSkipListSet<>();
+    
+    /**
+     * Subscribe to scenario and run events.
+     *
+     * @param publisher Cucumber event publisher
+     */
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onScenarioFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::onRunFinished);
+    }
+    
+    /**
+     * Record the duration of a scenario against the browser of the current thread.
+     *
+     * @param event scenario finished event
+     */
+    private void onScenarioFinished(TestCaseFinished event) {
+        BrowserProfile profile = BrowserProfile.current();
+        if (profile == null) {
+            return;
+        }
+        TestCase testCase = event.getTestCase();
+        String scenario = testCase.getName() + " (line " + testCase.getLocation().getLine() + ")";
+        browsers.add(profile.getLabel());
+        durations.computeIfAbsent(scenario, key -> new ConcurrentHashMap<>())
+                .put(profile.getLabel(), event.getResult().getDuration().toMillis());
+    }
+    
+    /**
+     * Write the timing table when more than one browser was used.
+     *
+     * @param event run finished event
+     */
+    private void onRunFinished(TestRunFinished event) {
+        if (browsers.size() < 2) {
+            return;
+        }
+        
+        Path reportFile = Paths.get(ConfigurationManager.getInstance().getBrowserTimingReport());
+        try {
+            Files.createDirectories(reportFile.toAbsolutePath().getParent());
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8))) {
+                writer.printf("%-60s", "Scenario");
+                browsers.forEach(browser -> writer.printf(" %18s", browser + " ms"));
+                writer.println();
+                
+                Map<String, Long> totals = new TreeMap<>();
+                new TreeMap<>(durations).forEach((scenario, byBrowser) -> {
+                    writer.printf("%-60s", scenario);
+                    for (String browser : browsers) {
+                        Long millis = byBrowser.get(browser);
+                        writer.printf(" %18s", millis == null ? "-" : String.valueOf(millis));
+                        if (millis != null) {
+                            totals.merge(browser, millis, Long::sum);
+                        }
+                    }
+                    writer.println();
+                });
+                
+                writer.printf("%-60s", "Total");
+                browsers.forEach(browser -> writer.printf(" %18d", totals.getOrDefault(browser, 0L)));
+                writer.println();
+            }
+            log.info("Browser timing report written to {}", reportFile);
+        } catch (IOException e) {
+            log.error("Failed to write browser timing report: {}", e.getMessage(), e);
+        }
+    }
+}
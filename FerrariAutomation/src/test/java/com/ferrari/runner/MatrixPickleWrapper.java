@@ -0,0 +1,54 @@
+package com.ferrari.runner;
+
+import com.ferrari.config.BrowserProfile;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+
+/**
+ * Scenario of the data provider bound to one browser of the matrix.
+ * The browser is part of the name TestNG shows for the test.
+ */
+public class MatrixPickleWrapper implements PickleWrapper {
+    private final PickleWrapper delegate;
+    private final BrowserProfile profile;
+    
+    /**
+     * Constructor.
+     *
+     * @param delegate scenario created by Cucumber
+     * @param profile browser to run the scenario against
+     */
+    public MatrixPickleWrapper(PickleWrapper delegate, BrowserProfile profile) {
+        this.delegate = delegate;
+        this.profile = profile;
+    }
+    
+    /**
+     * Get the scenario.
+     *
+     * @return Cucumber pickle
+     */
+    @Override
+    public Pickle getPickle() {
+        return delegate.getPickle();
+    }
+    
+    /**
+     * Get the browser to run the scenario against.
+     *
+     * @return browser profile
+     */
+    public BrowserProfile getProfile() {
+        return profile;
+    }
+    
+    /**
+     * Name shown in the TestNG reports.
+     *
+     * @return scenario name followed by the browser
+     */
+    @Override
+    public String toString() {
+        return delegate + " [" + profile.getLabel() + "]";
+    }
+}
@@ -0,0 +1,35 @@
+package com.ferrari.runner;
+
+import com.ferrari.config.ConfigurationManager;
+import com.ferrari.constants.LiteMode;
+import lombok.extern.log4j.Log4j2;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+import java.util.List;
+
+/**
+ * TestNG listener that applies the configured thread count to the scenario data provider.
+ * When running a browser matrix every browser gets {@code parallel.threads} threads,
+ * and so does the lite driver when it is compared with the real browsers.
+ */
+@Log4j2
+public class ParallelExecutionListener implements IAlterSuiteListener {
+    
+    /**
+     * Set the data provider thread count of every suite from configuration.
+     *
+     * @param suites suites about to be run
+     */
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        ConfigurationManager configManager = ConfigurationManager.getInstance();
+        int browsers = configManager.getBrowserMatrix().size() + (configManager.getLiteMode() == LiteMode.COMPARE ? 1 : 0);
+        int threads = configManager.getParallelThreads() * browsers;
+        log.info("Running scenarios with {} thread(s) for {} browser(s)", threads, browsers);
+        
+        for (XmlSuite suite : suites) {
+            suite.setDataProviderThreadCount(threads);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.ferrari.runner;
+
+import com.ferrari.config.ConfigurationManager;
+import com.ferrari.sharding.ScenarioDurations;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Cucumber plugin recording how long each scenario took, for planning shards.
+ * When the run is one shard of several, the shared durations file is left untouched, so shards
+ * starting later still plan from the same durations; the shard writes the durations it recorded
+ * to its report directory instead, to be merged with {@link com.ferrari.sharding.ReportMerger}.
+ */
+public class ScenarioDurationPlugin implements ConcurrentEventListener {
+    private final ConfigurationManager configManager = ConfigurationManager.getInstance();
+    private final ScenarioDurations durations = new ScenarioDurations(Paths.get(configManager.getShardDurationsFile()));
+    
+    /**
+     * Subscribe to scenario and run events.
+     *
+     * @param publisher Cucumber event publisher
+     */
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onScenarioFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, this::onRunFinished);
+    }
+    
+    /**
+     * Record the duration of a scenario that ran to completion or failed.
+     *
+     * @param event scenario finished event
+     */
+    private void onScenarioFinished(TestCaseFinished event) {
+        Status status = event.getResult().getStatus();
+        if (status != Status.PASSED && status != Status.FAILED) {
+            return;
+        }
+        TestCase testCase = event.getTestCase();
+        durations.record(ScenarioDurations.key(testCase.getUri(), testCase.getLocation().getLine()),
+                event.getResult().getDuration().toMillis());
+    }
+    
+    /**
+     * Save the durations at the end of the run.
+     *
+     * @param event run finished event
+     */
+    private void onRunFinished(TestRunFinished event) {
+        if (configManager.getShardCount() <= 1) {
+            durations.save();
+            return;
+        }
+        Path file = Paths.get(configManager.getShardDurationsFile());
+        durations.save(Paths.get(configManager.getArtifactsReportDir(), file.getFileName().toString()));
+    }
+}
@@ -1,34 +1,161 @@
 package com.ferrari.runner;
 
+import com.ferrari.config.BrowserProfile;
+import com.ferrari.config.ConfigurationManager;
+import com.ferrari.config.DriverManager;
+import com.ferrari.constants.BrowserType;
+import com.ferrari.constants.LiteMode;
+import com.ferrari.sharding.ScenarioDurations;
+import com.ferrari.sharding.ShardPlanner;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
 import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
+import io.cucumber.testng.FeatureWrapper;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 /**
  * TestNG Cucumber runner.
+ * The HTML, JSON and JUnit reports are written to the report directory of the run
+ * ({@code artifacts.reportDir}, per shard in sharded runs), so they are registered
+ * through the {@code cucumber.plugin} property instead of the annotation.
+ * Scenarios tagged {@code @visual} are left out until their baselines are recorded; selecting
+ * them with {@code cucumber.filter.tags} replaces the default tag expression.
  */
 @CucumberOptions(
         features = "src/test/resources/features",
         glue = {"com.ferrari.steps", "com.ferrari.hooks"},
         plugin = {
                 "pretty",
-                "html:target/cucumber-reports/cucumber-pretty.html",
-                "json:target/cucumber-reports/cucumber-report.json",
-                "junit:target/cucumber-reports/cucumber-results.xml"
+                "com.ferrari.runner.TracePlugin",
+                "com.ferrari.runner.ScenarioDurationPlugin",
+                "com.ferrari.runner.BrowserTimingPlugin"
         },
         monochrome = true,
-        tags = ""
+        tags = "not @visual"
 )
 public class TestRunner extends AbstractTestNGCucumberTests {
+    private static final String LITE_TAG = "@lite";
+    
+    static {
+        String reportDir = ConfigurationManager.getInstance().getArtifactsReportDir();
+        String reports = String.join(",",
+                "html:" + reportDir + "/cucumber-pretty.html",
+                "json:" + reportDir + "/cucumber-report.json",
+                "junit:" + reportDir + "/cucumber-results.xml");
+        String plugins = System.getProperty("cucumber.plugin", "");
+        System.setProperty("cucumber.plugin", plugins.isEmpty() ? reports : plugins + "," + reports);
+    }
     
     /**
-     * Runs scenarios in parallel if enabled.
+     * Runs scenarios in parallel. The thread count is set from the
+     * {@code parallel.threads} property by {@link ParallelExecutionListener}.
+     * With {@code shard.count} above 1 only the scenarios planned for {@code shard.index} are run,
+     * and with a {@code browser.matrix} each of them is run once per browser. Scenarios tagged
+     * {@code @lite} run on the lite driver as set by {@code lite.mode}.
      *
      * @return DataProvider instance
      */
     @Override
-    @DataProvider(parallel = false)
+    @DataProvider(parallel = true)
     public Object[][] scenarios() {
-        return super.scenarios();
+        ConfigurationManager configManager = ConfigurationManager.getInstance();
+        List<Object[]> scenarios = Arrays.asList(super.scenarios());
+        if (configManager.getShardCount() > 1) {
+            ShardPlanner planner = new ShardPlanner(new ScenarioDurations(Paths.get(configManager.getShardDurationsFile())),
+                    configManager.getShardIndex(), configManager.getShardCount());
+            scenarios = planner.select(scenarios, scenario -> {
+                Pickle pickle = ((PickleWrapper) scenario[0]).getPickle();
+                return ScenarioDurations.key(pickle.getUri(), pickle.getLine());
+            });
+        }
+        
+        if (configManager.getBrowserMatrix().size() > 1 || configManager.getLiteMode() != LiteMode.OFF) {
+            List<Object[]> matrixScenarios = new ArrayList<>();
+            for (Object[] scenario : scenarios) {
+                PickleWrapper pickleWrapper = (PickleWrapper) scenario[0];
+                for (BrowserProfile profile : getProfiles(pickleWrapper.getPickle(), configManager)) {
+                    matrixScenarios.add(new Object[]{new MatrixPickleWrapper(pickleWrapper, profile), scenario[1]});
+                }
+            }
+            scenarios = matrixScenarios;
+        }
+        return scenarios.toArray(new Object[0][]);
+    }
+    
+    /**
+     * Get the browsers a scenario runs against: the lite driver for scenarios tagged {@code @lite}
+     * when lite mode is on, both the lite driver and the matrix in compare mode, and otherwise the matrix.
+     *
+     * @param pickle scenario
+     * @param configManager ConfigurationManager instance
+     * @return browser profiles
+     */
+    private List<BrowserProfile> getProfiles(Pickle pickle, ConfigurationManager configManager) {
+        LiteMode liteMode = configManager.getLiteMode();
+        if (liteMode == LiteMode.OFF || !pickle.getTags().contains(LITE_TAG)) {
+            return configManager.getBrowserMatrix();
+        }
+        if (liteMode == LiteMode.ON) {
+            return List.of(BrowserProfile.lite());
+        }
+        List<BrowserProfile> profiles = new ArrayList<>();
+        profiles.add(BrowserProfile.lite());
+        profiles.addAll(configManager.getBrowserMatrix());
+        return profiles;
+    }
+    
+    /**
+     * Run a scenario, against its browser when running a matrix.
+     *
+     * @param pickleWrapper scenario
+     * @param featureWrapper feature of the scenario
+     */
+    @Override
+    @Test(groups = "cucumber", description = "Runs Cucumber Scenarios", dataProvider = "scenarios")
+    public void runScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+        if (!(pickleWrapper instanceof MatrixPickleWrapper)) {
+            super.runScenario(pickleWrapper, featureWrapper);
+            return;
+        }
+        
+        BrowserProfile.use(((MatrixPickleWrapper) pickleWrapper).getProfile());
+        try {
+            super.runScenario(pickleWrapper, featureWrapper);
+        } finally {
+            BrowserProfile.clear();
+        }
+    }
+    
+    /**
+     * Resolve the driver binaries once, then pre-launch pooled browser sessions while Cucumber parses the features.
+     * The run stops here if a browser cannot be resolved, instead of every scenario failing on its own.
+     */
+    @BeforeClass(alwaysRun = true)
+    public void warmUpDrivers() {
+        DriverManager driverManager = new DriverManager(ConfigurationManager.getInstance());
+        Set<BrowserType> unresolved = driverManager.preflight();
+        if (!unresolved.isEmpty()) {
+            throw new IllegalStateException("Driver preflight could not resolve a driver for " + unresolved
+                    + "; see the preflight errors in the log");
+        }
+        driverManager.warmUpPool();
+    }
+    
+    /**
+     * Close the browser sessions left open by the worker threads.
+     */
+    @AfterClass(alwaysRun = true)
+    public void quitDrivers() {
+        DriverManager.quitAllDrivers();
     }
 }
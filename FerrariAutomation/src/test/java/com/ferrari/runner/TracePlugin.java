@@ -0,0 +1,85 @@
+package com.ferrari.runner;
+
+import com.ferrari.trace.TraceEventType;
+import com.ferrari.trace.TraceRecorder;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import io.cucumber.plugin.event.TestStepFinished;
+import io.cucumber.plugin.event.TestStepStarted;
+
+/**
+ * Cucumber plugin recording scenario and step boundaries in the trace.
+ * Concurrent listeners get events on the thread running the scenario, so the scenario id set here
+ * is the one the commands and waits of the scenario are recorded with.
+ */
+public class TracePlugin implements ConcurrentEventListener {
+    private final ThreadLocal<Long> scenarioStart = new ThreadLocal<>();
+    private final ThreadLocal<Long> stepStart = new ThreadLocal<>();
+    
+    /**
+     * Subscribe to scenario and step events when tracing is enabled.
+     *
+     * @param publisher Cucumber event publisher
+     */
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (!TraceRecorder.isEnabled()) {
+            return;
+        }
+        publisher.registerHandlerFor(TestCaseStarted.class, this::onScenarioStarted);
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onScenarioFinished);
+        publisher.registerHandlerFor(TestStepStarted.class, this::onStepStarted);
+        publisher.registerHandlerFor(TestStepFinished.class, this::onStepFinished);
+    }
+    
+    /**
+     * Start a scenario on the current thread.
+     *
+     * @param event scenario started event
+     */
+    private void onScenarioStarted(TestCaseStarted event) {
+        TraceRecorder.startScenario();
+        scenarioStart.set(TraceRecorder.now());
+    }
+    
+    /**
+     * Record the scenario that finished on the current thread.
+     *
+     * @param event scenario finished event
+     */
+    private void onScenarioFinished(TestCaseFinished event) {
+        Long start = scenarioStart.get();
+        if (start != null) {
+            TraceRecorder.finishScenario(event.getTestCase().getName(), start);
+            scenarioStart.remove();
+        }
+    }
+    
+    /**
+     * Remember when a Gherkin step started.
+     *
+     * @param event step started event
+     */
+    private void onStepStarted(TestStepStarted event) {
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            stepStart.set(TraceRecorder.now());
+        }
+    }
+    
+    /**
+     * Record a Gherkin step that finished.
+     *
+     * @param event step finished event
+     */
+    private void onStepFinished(TestStepFinished event) {
+        Long start = stepStart.get();
+        if (start != null && event.getTestStep() instanceof PickleStepTestStep) {
+            PickleStepTestStep step = (PickleStepTestStep) event.getTestStep();
+            TraceRecorder.record(TraceEventType.STEP, step.getStep().getKeyword() + step.getStep().getText(), start);
+            stepStart.remove();
+        }
+    }
+}
@@ -4,7 +4,7 @@ import com.ferrari.pages.GoogleSearchResultsPage;
 import io.cucumber.java.en.When;
 import lombok.extern.log4j.Log4j2;
 
-import javax.inject.Inject;
+import jakarta.inject.Inject;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -3,9 +3,14 @@ Feature: Ferrari SF90 Search Validation
   I want to search for Ferrari SF90 on Google
   So that I can validate the Ferrari official website
 
-  @ferrari @smoke
+  @ferrari @smoke @lite
   Scenario: Search for Ferrari SF90 and verify official website
     Given I am on the Google homepage
     When I search for "ferrari sf90"
     And I click on the first search result
     Then I should be redirected to the Ferrari SF90 official page
+
+  @ferrari @visual
+  Scenario: Ferrari SF90 model banner matches the visual baseline
+    Given I am on the Ferrari SF90 official page
+    Then the model banner should match the visual baseline